@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.3.2"
     id("io.spring.dependency-management") version "1.1.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.hsk"
@@ -23,11 +24,24 @@ repositories {
     mavenCentral()
 }
 
+// End-to-end load tests under src/loadTest, run against a locally started application
+sourceSets {
+    create("loadTest")
+}
+
+val loadTestImplementation: Configuration by configurations.getting {
+    extendsFrom(configurations.implementation.get())
+}
+
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 //    implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
     implementation("org.liquibase:liquibase-core:4.28.0")
     implementation("org.hibernate:hibernate-envers:6.5.2.Final")
@@ -47,8 +61,46 @@ dependencies {
     testImplementation("org.springframework.boot:spring-boot-starter-test")
 //    testImplementation("org.springframework.security:spring-security-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    loadTestImplementation("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// Microbenchmarks under src/jmh, run with ./gradlew jmh (or -Pjmh.includes=<regex> for a subset).
+// Results are written as JSON per version so runs can be compared across releases.
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    benchmarkMode = listOf("avgt")
+    timeUnit = "us"
+    (findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results-${project.version}.json")
+}
+
+// Passes -Ploadtest.* properties (books, members, transactions, threads, duration, mix, ...) to the load-test tools
+fun JavaExec.loadTestTool(main: String) {
+    group = "load test"
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass = main
+    systemProperties(project.properties.filterKeys { it.startsWith("loadtest.") })
+}
+
+tasks.register<JavaExec>("seedLoadTestData") {
+    description = "Bulk-loads synthetic books, members and transactions into the database (application stopped)."
+    loadTestTool("com.hsk.library_mgmt_backend.loadtest.SeedGenerator")
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the load-test scenarios against a running application and reports p50/p99 per endpoint."
+    loadTestTool("com.hsk.library_mgmt_backend.loadtest.LoadTestRunner")
+}
+
+tasks.register<JavaExec>("insertBenchmark") {
+    description = "Compares book insert throughput with one sequence call per row against blocks of 50 ids."
+    loadTestTool("com.hsk.library_mgmt_backend.loadtest.InsertThroughputBenchmark")
+}
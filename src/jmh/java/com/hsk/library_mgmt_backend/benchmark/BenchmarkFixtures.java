@@ -0,0 +1,79 @@
+package com.hsk.library_mgmt_backend.benchmark;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.entity.base.BaseEntity;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like the rows the API pages over, shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 9, 0);
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<Book> books(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("The Library Book, Volume " + i);
+            book.setAuthor("Author " + (i % 97));
+            book.setIsbn(String.format("978-0-%09d", i));
+            book.setGenre("genre-" + (i % 12));
+            book.setPublicationDate(TODAY.minusDays(i));
+            book.setCopiesAvailable(i % 7);
+            audit(book);
+            books.add(book);
+        }
+        return books;
+    }
+
+    static List<BookTransaction> bookTransactions(int count) {
+        List<Book> books = books(count);
+        List<BookTransaction> transactions = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            BookTransaction transaction = new BookTransaction();
+            transaction.setId((long) i);
+            transaction.setBook(books.get(i - 1));
+            transaction.setMember(member(i % 50 + 1));
+            transaction.setRequestDate(TODAY.minusDays(20));
+            transaction.setIssueDate(TODAY.minusDays(19));
+            transaction.setDueDate(TODAY.minusDays(5));
+            transaction.setStatus(BookTransaction.Status.APPROVED);
+            audit(transaction);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    static Member member(long id) {
+        Member member = new Member();
+        member.setId(id);
+        member.setName("Member " + id);
+        member.setEmail("member" + id + "@example.com");
+        member.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3QZ7vZ5Yd3jN1Ww8bQ0K6iO");
+        member.setPhone(String.format("98%08d", id));
+        member.setRole(Role.STUDENT);
+        audit(member);
+        return member;
+    }
+
+    private static void audit(BaseEntity entity) {
+        entity.setVersion(0L);
+        entity.setCreatedAt(CREATED_AT);
+        entity.setCreatedBy("admin@example.com");
+        entity.setUpdatedAt(CREATED_AT);
+        entity.setUpdatedBy("admin@example.com");
+    }
+}
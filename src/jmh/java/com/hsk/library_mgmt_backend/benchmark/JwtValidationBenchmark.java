@@ -0,0 +1,85 @@
+package com.hsk.library_mgmt_backend.benchmark;
+
+import com.hsk.library_mgmt_backend.config.JWTService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Per-request cost of issuing and authenticating a bearer token.
+ * <p>
+ * {@link #generateToken} is the signing done on every login.
+ * {@link #legacyTripleParse} reproduces the validation the filter did before: three parses of the same
+ * token, each decoding the secret and building a new key and parser. {@link #parseOnce} is a cache miss
+ * of {@link JWTService#verify}: one parse with the parser built at startup. {@link #verifyCached} is the
+ * common case of a client repeating a token that has already been verified.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private String secretKey;
+    private String token;
+    private Map<String, Object> claims;
+    private UserDetails userDetails;
+    private JwtParser jwtParser;
+    private JWTService jwtService;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        secretKey = Encoders.BASE64.encode(keyBytes);
+        userDetails = User.withUsername("member@example.com").password("password").roles("MEMBER").build();
+
+        jwtService = new JWTService(secretKey, 10_000, new SimpleMeterRegistry());
+        claims = Map.of("id", 1L, "name", "Member", "phone", "9800000000", "role", "MEMBER");
+        token = jwtService.generateToken(userDetails, claims);
+        jwtParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(keyBytes)).build();
+        jwtService.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails, claims);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims().getSubject(); // filter: extractUsername
+        return username.equals(legacyClaims().getSubject()) // isTokenValid: extractUsername
+                && username.equals(userDetails.getUsername())
+                && !legacyClaims().getExpiration().before(new Date()); // isTokenValid: isTokenExpired
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        return jwtService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        return jwtService.isTokenValid(jwtService.verify(token), userDetails);
+    }
+
+    private Claims legacyClaims() {
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,61 @@
+package com.hsk.library_mgmt_backend.benchmark;
+
+import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
+import com.hsk.library_mgmt_backend.mapper.BookMapper;
+import com.hsk.library_mgmt_backend.mapper.BookMapperImpl;
+import com.hsk.library_mgmt_backend.mapper.BookTransactionMapper;
+import com.hsk.library_mgmt_backend.mapper.BookTransactionMapperImpl;
+import com.hsk.library_mgmt_backend.mapper.MemberMapperImpl;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.List;
+
+/**
+ * List conversion of a result page by the generated MapStruct mappers, wired by Spring as in the application.
+ */
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private AnnotationConfigApplicationContext context;
+    private BookMapper bookMapper;
+    private BookTransactionMapper bookTransactionMapper;
+    private List<Book> books;
+    private List<BookTransaction> bookTransactions;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(
+                BookMapperImpl.class, MemberMapperImpl.class, BookTransactionMapperImpl.class);
+        bookMapper = context.getBean(BookMapper.class);
+        bookTransactionMapper = context.getBean(BookTransactionMapper.class);
+        books = BenchmarkFixtures.books(pageSize);
+        bookTransactions = BenchmarkFixtures.bookTransactions(pageSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookDto> bookToDto() {
+        return bookMapper.toDto(books);
+    }
+
+    @Benchmark
+    public List<BookTransactionDto> bookTransactionToDto() {
+        return bookTransactionMapper.toDto(bookTransactions);
+    }
+}
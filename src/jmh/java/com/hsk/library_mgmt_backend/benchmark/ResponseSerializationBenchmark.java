@@ -0,0 +1,63 @@
+package com.hsk.library_mgmt_backend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
+import com.hsk.library_mgmt_backend.mapper.BookMapper;
+import com.hsk.library_mgmt_backend.mapper.BookMapperImpl;
+import com.hsk.library_mgmt_backend.mapper.BookTransactionMapper;
+import com.hsk.library_mgmt_backend.mapper.BookTransactionMapperImpl;
+import com.hsk.library_mgmt_backend.mapper.MemberMapperImpl;
+import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
+import com.hsk.library_mgmt_backend.response.ResponsePaginationUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+/**
+ * Wrapping a page of DTOs in {@link ResponsePaginationData} and writing it as JSON, as the paginated
+ * endpoints do for every response.
+ */
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<BookDto> books;
+    private List<BookTransactionDto> bookTransactions;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot configures for the web layer
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(
+                BookMapperImpl.class, MemberMapperImpl.class, BookTransactionMapperImpl.class)) {
+            books = context.getBean(BookMapper.class).toDto(BenchmarkFixtures.books(pageSize));
+            bookTransactions = context.getBean(BookTransactionMapper.class)
+                    .toDto(BenchmarkFixtures.bookTransactions(pageSize));
+        }
+    }
+
+    @Benchmark
+    public byte[] bookPage() throws JsonProcessingException {
+        ResponsePaginationData<List<BookDto>> response =
+                ResponsePaginationUtil.responsePaginationConverter(books, 10_000L, 10_000 / pageSize, 0);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] bookTransactionPage() throws JsonProcessingException {
+        ResponsePaginationData<List<BookTransactionDto>> response =
+                ResponsePaginationUtil.responsePaginationConverter(bookTransactions, 10_000L, 10_000 / pageSize, 0);
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
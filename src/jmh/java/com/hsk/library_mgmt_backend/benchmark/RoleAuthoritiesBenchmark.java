@@ -0,0 +1,25 @@
+package com.hsk.library_mgmt_backend.benchmark;
+
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Cost of {@link Role#getAuthorities()}, which builds the authority list of a member on every call.
+ */
+@State(Scope.Benchmark)
+public class RoleAuthoritiesBenchmark {
+
+    @Param({"ADMIN", "STUDENT"})
+    private Role role;
+
+    @Benchmark
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return role.getAuthorities();
+    }
+}
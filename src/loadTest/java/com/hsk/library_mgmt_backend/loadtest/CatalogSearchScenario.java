@@ -0,0 +1,43 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A member looking for a book: typing into the suggestion box, searching the catalog (sometimes
+ * within a genre, sometimes asking for facets, sometimes paging on), then opening a result.
+ */
+final class CatalogSearchScenario implements Scenario {
+
+    private final ZipfSampler words = new ZipfSampler(SeedVocabulary.TITLE_WORDS.size(), 1.0);
+    private final ZipfSampler genres = new ZipfSampler(SeedVocabulary.GENRES.size(), 0.8);
+
+    @Override
+    public void run(LoadTestSession session) throws InterruptedException {
+        String token = session.token();
+        String word = SeedVocabulary.TITLE_WORDS.get(words.next(session.random));
+
+        session.client.call(Endpoint.BOOK_SUGGEST,
+                "/api/v1/book/suggest?limit=10&prefix=" + word.substring(0, Math.min(3, word.length())), null, token);
+
+        StringBuilder query = new StringBuilder("/api/v1/book?size=20&query=").append(word);
+        int roll = session.random.nextInt(10);
+        if (roll < 3) {
+            String genre = SeedVocabulary.GENRES.get(genres.next(session.random));
+            query.append("&genre=").append(URLEncoder.encode(genre, StandardCharsets.UTF_8));
+        } else if (roll < 5) {
+            query.append("&facets=true");
+        }
+        JsonNode page = session.client.call(Endpoint.BOOK_SEARCH, query.toString(), null, token);
+        if (page != null && roll == 9) {
+            session.client.call(Endpoint.BOOK_SEARCH, query + "&page=2", null, token);
+        }
+
+        if (page != null && page.size() > 0) {
+            long bookId = page.get(session.random.nextInt(page.size())).path("id").asLong();
+            session.client.call(Endpoint.BOOK_BY_ID, "/api/v1/book/" + bookId, null, token);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * A full loan: a member requests a book, an admin approves it and it is returned. Popular books run
+ * out of stock under load; those requests are cancelled instead, as a librarian would.
+ */
+final class CirculationCycleScenario implements Scenario {
+
+    @Override
+    public void run(LoadTestSession session) throws InterruptedException {
+        String token = session.token();
+        String adminToken = session.adminToken();
+        long memberId = session.sample.memberId(session.random);
+        long bookId = session.sample.bookId(session.random);
+
+        JsonNode created = session.client.call(Endpoint.BOOK_TRANSACTION_CREATE, "/api/v1/book-transaction",
+                Map.of("bookId", bookId, "memberId", memberId), token);
+        if (created == null) {
+            return;
+        }
+        String path = "/api/v1/book-transaction/" + created.path("id").asLong();
+
+        session.client.call(Endpoint.BOOK_TRANSACTION_LIST,
+                "/api/v1/book-transaction?status=REQUESTED&memberId=" + memberId, null, token);
+
+        JsonNode approved = session.client.call(Endpoint.BOOK_TRANSACTION_UPDATE, path,
+                Map.of("status", "APPROVED", "dueDate", LocalDate.now().plusDays(14).toString()), adminToken);
+        if (approved == null) {
+            session.client.call(Endpoint.BOOK_TRANSACTION_UPDATE, path, Map.of("status", "CANCELLED"), adminToken);
+            return;
+        }
+
+        session.client.call(Endpoint.BOOK_TRANSACTION_UPDATE, path,
+                Map.of("status", "RETURNED", "returnDate", LocalDate.now().toString()), adminToken);
+    }
+}
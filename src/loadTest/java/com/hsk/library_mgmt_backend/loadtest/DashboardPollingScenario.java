@@ -0,0 +1,25 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+/**
+ * Admin and member screens refreshing: the dashboard counts, the overdue list and the member
+ * directory, as polled by open browser tabs.
+ */
+final class DashboardPollingScenario implements Scenario {
+
+    @Override
+    public void run(LoadTestSession session) throws InterruptedException {
+        String token = session.token();
+        String adminToken = session.adminToken();
+        long memberId = session.sample.memberId(session.random);
+
+        session.client.call(Endpoint.ADMIN_DASHBOARD, "/api/v1/dashboard/admin/count", null, adminToken);
+        session.client.call(Endpoint.MEMBER_DASHBOARD, "/api/v1/dashboard/member/count?memberId=" + memberId,
+                null, token);
+        switch (session.random.nextInt(3)) {
+            case 0 -> session.client.call(Endpoint.BOOK_TRANSACTION_OVERDUE, "/api/v1/book-transaction/overdue",
+                    null, token);
+            case 1 -> session.client.call(Endpoint.MEMBER_LIST, "/api/v1/member?size=20", null, adminToken);
+            default -> session.client.call(Endpoint.MEMBER_BY_ID, "/api/v1/member/" + memberId, null, token);
+        }
+    }
+}
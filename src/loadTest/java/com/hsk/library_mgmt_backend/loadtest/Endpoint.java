@@ -0,0 +1,41 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+/**
+ * The endpoints the scenarios call, the unit latency and throughput are reported by.
+ */
+enum Endpoint {
+    AUTHENTICATE("AuthApi", "POST", "/api/v1/auth/authenticate"),
+    BOOK_SEARCH("BookApi", "GET", "/api/v1/book"),
+    BOOK_SUGGEST("BookApi", "GET", "/api/v1/book/suggest"),
+    BOOK_BY_ID("BookApi", "GET", "/api/v1/book/{bookId}"),
+    BOOK_TRANSACTION_CREATE("BookTransactionApi", "POST", "/api/v1/book-transaction"),
+    BOOK_TRANSACTION_UPDATE("BookTransactionApi", "PUT", "/api/v1/book-transaction/{bookTransactionId}"),
+    BOOK_TRANSACTION_LIST("BookTransactionApi", "GET", "/api/v1/book-transaction"),
+    BOOK_TRANSACTION_OVERDUE("BookTransactionApi", "GET", "/api/v1/book-transaction/overdue"),
+    MEMBER_BY_ID("MemberApi", "GET", "/api/v1/member/{memberId}"),
+    MEMBER_LIST("MemberApi", "GET", "/api/v1/member"),
+    ADMIN_DASHBOARD("DashboardApi", "GET", "/api/v1/dashboard/admin/count"),
+    MEMBER_DASHBOARD("DashboardApi", "GET", "/api/v1/dashboard/member/count");
+
+    private final String api;
+    private final String method;
+    private final String pathTemplate;
+
+    Endpoint(String api, String method, String pathTemplate) {
+        this.api = api;
+        this.method = method;
+        this.pathTemplate = pathTemplate;
+    }
+
+    String api() {
+        return api;
+    }
+
+    String method() {
+        return method;
+    }
+
+    String label() {
+        return method + " " + pathTemplate;
+    }
+}
@@ -0,0 +1,155 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Measures book insert throughput with ids allocated one per row against blocks of 50.
+ * <p>
+ * Replays the statements Hibernate issues for a bulk import: {@code sequence-per-row} is the former
+ * {@code allocationSize = 1}, one {@code nextval} round trip per entity, and {@code pooled-lo-50} is the
+ * current mapping, one {@code nextval} per 50 entities. Both then insert in JDBC batches of 50, in
+ * transactions of 500 rows like the bulk import. Each strategy inserts {@code loadtest.insertRows} rows
+ * per round, after one warm-up round.
+ * </p>
+ * <p>
+ * Rows go into the real {@code book} table, with its indexes, and every transaction is rolled back.
+ * Ids come from temporary sequences starting above the existing books, so the database is left as it
+ * was. The gap between the strategies grows with the network latency to the database.
+ * </p>
+ */
+public class InsertThroughputBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int ROWS_PER_TRANSACTION = 500;
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final String INSERTED_BY = "insert-benchmark";
+
+    private final Connection connection;
+    private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    private final Date publicationDate = Date.valueOf(LocalDate.now());
+
+    InsertThroughputBenchmark(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                settings.jdbcUrl(), settings.jdbcUser(), settings.jdbcPassword())) {
+            connection.setAutoCommit(false);
+            new InsertThroughputBenchmark(connection).run(settings.insertRows());
+        }
+    }
+
+    void run(int rows) throws SQLException {
+        IdAllocator[] strategies = {
+                new IdAllocator("sequence-per-row", 1),
+                new IdAllocator("pooled-lo-50", 50)
+        };
+        for (IdAllocator strategy : strategies) {
+            insertBooks(strategy, rows);
+        }
+
+        System.out.printf("%-18s %12s %12s %12s%n", "Strategy", "Rows/s", "us/row", "nextval");
+        for (IdAllocator strategy : strategies) {
+            long nanos = 0;
+            strategy.sequenceCalls = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                insertBooks(strategy, rows);
+                nanos += System.nanoTime() - start;
+            }
+            long totalRows = (long) rows * ROUNDS;
+            System.out.printf("%-18s %,12.0f %12.2f %,12d%n", strategy.name, totalRows / (nanos / 1e9),
+                    nanos / 1e3 / totalRows, strategy.sequenceCalls / ROUNDS);
+        }
+    }
+
+    private void insertBooks(IdAllocator ids, int rows) throws SQLException {
+        String sql = """
+                INSERT INTO book (id, version, created_at, created_by, updated_at, updated_by, deleted,
+                                  title, author, isbn, genre, publication_date, copies_available)
+                VALUES (?, 0, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                long id = ids.next();
+                statement.setLong(1, id);
+                statement.setTimestamp(2, now);
+                statement.setString(3, INSERTED_BY);
+                statement.setTimestamp(4, now);
+                statement.setString(5, INSERTED_BY);
+                statement.setString(6, "Benchmark Title " + id);
+                statement.setString(7, "Benchmark Author");
+                statement.setString(8, "BENCH-" + id);
+                statement.setString(9, "Benchmark");
+                statement.setDate(10, publicationDate);
+                statement.setInt(11, 1);
+                statement.addBatch();
+                if ((i + 1) % JDBC_BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+                if ((i + 1) % ROWS_PER_TRANSACTION == 0) {
+                    connection.rollback();
+                }
+            }
+            statement.executeBatch();
+            connection.rollback();
+        }
+    }
+
+    /**
+     * Creates a session-scoped sequence starting above every book id; sequence calls are not rolled back.
+     */
+    private String createSequence(int increment) throws SQLException {
+        String name = "insert_benchmark_seq_" + increment;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT coalesce(max(id), 0) + 1 FROM book")) {
+            resultSet.next();
+            statement.execute("CREATE TEMPORARY SEQUENCE %s START WITH %d INCREMENT BY %d"
+                    .formatted(name, resultSet.getLong(1), increment));
+        }
+        connection.commit();
+        return name;
+    }
+
+    /**
+     * Hands out ids the way Hibernate's pooled-lo optimizer does: a sequence value V covers V .. V + increment - 1.
+     */
+    private final class IdAllocator {
+        private final String name;
+        private final String sequence;
+        private final int increment;
+        private long next;
+        private long limit;
+        private long sequenceCalls;
+
+        private IdAllocator(String name, int increment) throws SQLException {
+            this.name = name;
+            this.sequence = createSequence(increment);
+            this.increment = increment;
+        }
+
+        long next() throws SQLException {
+            if (next == limit) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery("SELECT nextval('" + sequence + "')")) {
+                    resultSet.next();
+                    next = resultSet.getLong(1);
+                }
+                limit = next + increment;
+                sequenceCalls++;
+            }
+            return next++;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency and outcome of every call per endpoint, once recording has been switched on
+ * after the warm-up.
+ * <p>
+ * Latencies go into HdrHistograms in microseconds, up to a minute with three significant digits.
+ * The runner is closed-loop (each virtual user waits for its response), so under saturation the
+ * percentiles describe served requests and throughput is the figure that drops.
+ * </p>
+ */
+final class LatencyRecorder {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean recording;
+
+    LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void start() {
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+    }
+
+    void record(Endpoint endpoint, long elapsedNanos, boolean succeeded) {
+        if (!recording) {
+            return;
+        }
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS);
+        latencies.get(endpoint).recordValue(micros);
+        if (!succeeded) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    Histogram latencies(Endpoint endpoint) {
+        return latencies.get(endpoint);
+    }
+
+    long errors(Endpoint endpoint) {
+        return errors.get(endpoint).sum();
+    }
+}
@@ -0,0 +1,72 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Calls the application over HTTP and records each call with the {@link LatencyRecorder}.
+ * <p>
+ * A call succeeds when it returns HTTP 200 with {@code "result": true}; the API reports
+ * business errors such as an out-of-stock book as HTTP 200 with {@code "result": false}.
+ * </p>
+ */
+final class LoadTestClient {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    LoadTestClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Calls the endpoint and returns the {@code data} of the response, or null if the call failed.
+     *
+     * @param endpoint the endpoint being called, for reporting
+     * @param path     the concrete path and query string
+     * @param body     the request body to send as JSON, or null
+     * @param token    the bearer token, or null for public endpoints
+     */
+    JsonNode call(Endpoint endpoint, String path, Object body, String token) throws InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long start = System.nanoTime();
+        try {
+            if (body == null) {
+                request.method(endpoint.method(), HttpRequest.BodyPublishers.noBody());
+            } else {
+                request.header("Content-Type", "application/json")
+                        .method(endpoint.method(), HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            }
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            JsonNode data = null;
+            if (response.statusCode() == 200) {
+                JsonNode json = objectMapper.readTree(response.body());
+                if (json.path("result").asBoolean(false)) {
+                    data = json.path("data");
+                }
+            }
+            recorder.record(endpoint, System.nanoTime() - start, data != null);
+            return data;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the scripted scenarios against a running application and reports latency and throughput
+ * per endpoint.
+ * <p>
+ * {@code loadtest.threads} virtual users each repeat scenarios picked by the weights of
+ * {@code loadtest.mix} ({@code search}, {@code login}, {@code circulation}, {@code dashboard}), without
+ * think time. Nothing is recorded during {@code loadtest.warmup}; the report covers the following
+ * {@code loadtest.duration}. It is printed and written as JSON under {@code loadtest.reportDir}.
+ * </p>
+ */
+public class LoadTestRunner {
+
+    private static final Map<String, Scenario> SCENARIOS = Map.of(
+            "search", new CatalogSearchScenario(),
+            "login", new LoginStormScenario(),
+            "circulation", new CirculationCycleScenario(),
+            "dashboard", new DashboardPollingScenario());
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        List<Scenario> weightedScenarios = weightedScenarios(settings.mix());
+        SeedSample sample = SeedSample.load(settings);
+        LatencyRecorder recorder = new LatencyRecorder();
+        LoadTestClient client = new LoadTestClient(settings.baseUrl(), recorder);
+
+        System.out.printf("Running %d virtual users against %s: %s warm-up, %s measured, mix %s%n",
+                settings.threads(), settings.baseUrl(), settings.warmup(), settings.duration(), settings.mix());
+
+        SplittableRandom seeds = new SplittableRandom(settings.randomSeed());
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        for (int i = 0; i < settings.threads(); i++) {
+            LoadTestSession session = new LoadTestSession(client, sample, seeds.split(), settings.password());
+            workers.submit(() -> runScenarios(session, weightedScenarios));
+        }
+
+        Thread.sleep(settings.warmup().toMillis());
+        recorder.start();
+        long start = System.nanoTime();
+        Thread.sleep(settings.duration().toMillis());
+        recorder.stop();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        workers.shutdownNow();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(settings, recorder, seconds);
+    }
+
+    private static void runScenarios(LoadTestSession session, List<Scenario> weightedScenarios) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Scenario scenario = weightedScenarios.get(session.random.nextInt(weightedScenarios.size()));
+                try {
+                    scenario.run(session);
+                } catch (RuntimeException e) {
+                    // An unexpected response shape; keep the virtual user running
+                    System.err.println(scenario.getClass().getSimpleName() + " failed: " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Lists each scenario as many times as its weight, so picking uniformly follows the mix.
+     */
+    private static List<Scenario> weightedScenarios(Map<String, Integer> mix) {
+        List<Scenario> scenarios = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            Scenario scenario = SCENARIOS.get(name);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of " + SCENARIOS.keySet());
+            }
+            for (int i = 0; i < weight; i++) {
+                scenarios.add(scenario);
+            }
+        });
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("The scenario mix has no weight");
+        }
+        return scenarios;
+    }
+
+    private static void report(LoadTestSettings settings, LatencyRecorder recorder, double seconds) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-20s %-50s %9s %7s %9s %9s %9s %9s%n",
+                "API", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "Max ms");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram latencies = recorder.latencies(endpoint);
+            long requests = latencies.getTotalCount();
+            if (requests == 0) {
+                continue;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("api", endpoint.api());
+            row.put("endpoint", endpoint.label());
+            row.put("requests", requests);
+            row.put("errors", recorder.errors(endpoint));
+            row.put("throughput", requests / seconds);
+            row.put("p50Millis", latencies.getValueAtPercentile(50) / 1000.0);
+            row.put("p99Millis", latencies.getValueAtPercentile(99) / 1000.0);
+            row.put("maxMillis", latencies.getMaxValue() / 1000.0);
+            rows.add(row);
+            System.out.printf("%-20s %-50s %9d %7d %9.1f %9.2f %9.2f %9.2f%n",
+                    row.get("api"), row.get("endpoint"), requests, row.get("errors"), row.get("throughput"),
+                    row.get("p50Millis"), row.get("p99Millis"), row.get("maxMillis"));
+        }
+        long total = rows.stream().mapToLong(row -> (long) row.get("requests")).sum();
+        System.out.printf("%nTotal: %d requests in %.1fs (%.1f req/s)%n", total, seconds, total / seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", settings.baseUrl());
+        report.put("threads", settings.threads());
+        report.put("mix", settings.mix());
+        report.put("measuredSeconds", seconds);
+        report.put("totalThroughput", total / seconds);
+        report.put("endpoints", rows);
+
+        Path reportDir = Path.of(settings.reportDir());
+        Files.createDirectories(reportDir);
+        Path reportFile = reportDir.resolve(
+                "report-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+}
@@ -0,0 +1,74 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state of one virtual user: its random stream, the member it is signed in as and, for the
+ * endpoints that require {@code admin:*} authorities, an admin it is also signed in as.
+ * Tokens are renewed before the application's ten-minute expiry.
+ */
+final class LoadTestSession {
+
+    private static final long TOKEN_LIFETIME_NANOS = TimeUnit.MINUTES.toNanos(8);
+
+    final LoadTestClient client;
+    final SeedSample sample;
+    final SplittableRandom random;
+    private final String password;
+    private final SignIn member = new SignIn();
+    private final SignIn admin = new SignIn();
+
+    LoadTestSession(LoadTestClient client, SeedSample sample, SplittableRandom random, String password) {
+        this.client = client;
+        this.sample = sample;
+        this.random = random;
+        this.password = password;
+    }
+
+    /**
+     * Signs in as a member, returning the token or null if the sign-in failed.
+     */
+    String authenticate(long memberId) throws InterruptedException {
+        JsonNode data = client.call(Endpoint.AUTHENTICATE, "/api/v1/auth/authenticate",
+                Map.of("email", SeedSample.email(memberId), "password", password), null);
+        return data == null ? null : data.path("token").asText(null);
+    }
+
+    /**
+     * Returns the token of the member this user is signed in as.
+     */
+    String token() throws InterruptedException {
+        if (member.isStale()) {
+            member.renew(sample.memberId(random));
+        }
+        return member.token;
+    }
+
+    /**
+     * Returns the token of the admin this user is signed in as.
+     */
+    String adminToken() throws InterruptedException {
+        if (admin.isStale()) {
+            admin.renew(sample.adminId(random));
+        }
+        return admin.token;
+    }
+
+    private final class SignIn {
+        private String token;
+        private long issuedAt;
+
+        boolean isStale() {
+            return token == null || System.nanoTime() - issuedAt > TOKEN_LIFETIME_NANOS;
+        }
+
+        void renew(long memberId) throws InterruptedException {
+            token = authenticate(memberId);
+            issuedAt = System.nanoTime();
+        }
+    }
+}
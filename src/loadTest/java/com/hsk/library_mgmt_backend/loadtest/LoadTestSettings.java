@@ -0,0 +1,77 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings of the seed generator and the load-test runner, read from {@code loadtest.*} system properties.
+ * The Gradle tasks pass every {@code -Ploadtest.*} project property through.
+ *
+ * @param baseUrl      the application under test
+ * @param jdbcUrl      the PostgreSQL database the application uses
+ * @param jdbcUser     the database user
+ * @param jdbcPassword the database password
+ * @param books        the number of books to seed
+ * @param members      the number of members to seed
+ * @param transactions the number of book transactions to seed
+ * @param randomSeed   the seed of every random choice, so runs are reproducible
+ * @param password     the password of every seeded member
+ * @param threads      the number of concurrent virtual users
+ * @param warmup       how long to run before recording
+ * @param duration     how long to record
+ * @param mix          the relative weight of each scenario
+ * @param reportDir    where the JSON report is written
+ * @param insertRows   the number of rows each id allocation strategy inserts per round of the insert benchmark
+ */
+record LoadTestSettings(String baseUrl,
+                        String jdbcUrl,
+                        String jdbcUser,
+                        String jdbcPassword,
+                        int books,
+                        int members,
+                        int transactions,
+                        long randomSeed,
+                        String password,
+                        int threads,
+                        Duration warmup,
+                        Duration duration,
+                        Map<String, Integer> mix,
+                        String reportDir,
+                        int insertRows) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                property("baseUrl", "http://localhost:8081"),
+                property("jdbcUrl", "jdbc:postgresql://localhost:5432/library_mgmt?reWriteBatchedInserts=true"),
+                property("jdbcUser", "postgres"),
+                property("jdbcPassword", "postgres"),
+                Integer.parseInt(property("books", "100000")),
+                Integer.parseInt(property("members", "10000")),
+                Integer.parseInt(property("transactions", "500000")),
+                Long.parseLong(property("seed", "42")),
+                property("password", "loadtest-password"),
+                Integer.parseInt(property("threads", "32")),
+                Duration.parse(property("warmup", "PT15S")),
+                Duration.parse(property("duration", "PT2M")),
+                parseMix(property("mix", "search:50,login:10,circulation:20,dashboard:20")),
+                property("reportDir", "build/results/loadtest"),
+                Integer.parseInt(property("insertRows", "50000")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Scenario mix entries must be name:weight, got " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
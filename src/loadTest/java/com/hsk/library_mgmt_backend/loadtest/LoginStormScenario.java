@@ -0,0 +1,18 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+/**
+ * Many members signing in at once, as at the start of a term: every iteration is a fresh sign-in of
+ * a different member followed by the first page they load with the new token.
+ */
+final class LoginStormScenario implements Scenario {
+
+    @Override
+    public void run(LoadTestSession session) throws InterruptedException {
+        long memberId = session.sample.memberId(session.random);
+        String token = session.authenticate(memberId);
+        if (token != null) {
+            session.client.call(Endpoint.MEMBER_DASHBOARD, "/api/v1/dashboard/member/count?memberId=" + memberId,
+                    null, token);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+/**
+ * One scripted interaction a virtual user repeats, such as a catalog search or a borrow cycle.
+ */
+interface Scenario {
+
+    /**
+     * Runs one iteration of the scenario. Failed calls are recorded by the client and do not throw.
+     */
+    void run(LoadTestSession session) throws InterruptedException;
+}
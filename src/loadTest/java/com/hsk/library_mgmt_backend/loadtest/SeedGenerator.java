@@ -0,0 +1,270 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bulk-loads a synthetic catalog straight into the application's database over JDBC.
+ * <p>
+ * Seeds {@code loadtest.books} books, {@code loadtest.members} members and {@code loadtest.transactions}
+ * book transactions with skew: book popularity, member activity and title words follow a Zipf
+ * distribution, and transactions from the last month are still open while older ones are mostly returned.
+ * Every seeded member signs in as {@code member<id>@loadtest.example} with {@code loadtest.password}.
+ * The same {@code loadtest.seed} produces the same catalog.
+ * </p>
+ * <p>
+ * Rows are inserted in JDBC batches under ids reserved from the entity sequences, then the derived
+ * state is rebuilt: available copies net of open loans, the circulation counters and the member
+ * summaries. Seeded rows have no Envers revisions. Run it with the application stopped, since the
+ * application keeps in-memory state (search index, counters) that is only built at startup.
+ * </p>
+ */
+public class SeedGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final String SEEDED_BY = "loadtest-seed";
+
+    private final LoadTestSettings settings;
+    private final Connection connection;
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+    private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+    SeedGenerator(LoadTestSettings settings, Connection connection) {
+        this.settings = settings;
+        this.connection = connection;
+        this.random = new Random(settings.randomSeed());
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        try (Connection connection = DriverManager.getConnection(
+                settings.jdbcUrl(), settings.jdbcUser(), settings.jdbcPassword())) {
+            connection.setAutoCommit(false);
+            new SeedGenerator(settings, connection).run();
+        }
+    }
+
+    void run() throws SQLException {
+        long firstBookId = timed("books", settings.books(), () -> insertBooks(settings.books()));
+        long firstMemberId = timed("members", settings.members(), () -> insertMembers(settings.members()));
+        timed("transactions", settings.transactions(),
+                () -> insertTransactions(settings.transactions(), firstBookId, firstMemberId));
+        timed("derived state", 0, () -> {
+            rebuildDerivedState(firstBookId);
+            return 0L;
+        });
+    }
+
+    private long insertBooks(int count) throws SQLException {
+        long firstId = reserveIds("book_seq", count);
+        ZipfSampler words = new ZipfSampler(SeedVocabulary.TITLE_WORDS.size(), 1.0);
+        ZipfSampler genres = new ZipfSampler(SeedVocabulary.GENRES.size(), 0.8);
+        String sql = """
+                INSERT INTO book (id, version, created_at, created_by, updated_at, updated_by, deleted,
+                                  title, author, isbn, genre, publication_date, copies_available)
+                VALUES (?, 0, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                String title = capitalize(pick(SeedVocabulary.TITLE_WORDS, words)) + " of the "
+                        + capitalize(pick(SeedVocabulary.TITLE_WORDS, words)) + " " + (i % 9 + 1);
+                statement.setLong(1, id);
+                setAudit(statement, 2);
+                statement.setString(6, title);
+                statement.setString(7, randomName());
+                statement.setString(8, SeedVocabulary.ISBN_PREFIX + id);
+                statement.setString(9, pick(SeedVocabulary.GENRES, genres));
+                statement.setDate(10, Date.valueOf(today.minusDays(random.nextInt(365 * 60))));
+                statement.setInt(11, 2 + random.nextInt(11));
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return firstId;
+    }
+
+    private long insertMembers(int count) throws SQLException {
+        long firstId = reserveIds("member_seq", count);
+        // One hash for everyone: BCrypt per row would dominate the seeding time
+        String passwordHash = new BCryptPasswordEncoder().encode(settings.password());
+        String sql = """
+                INSERT INTO member (id, version, created_at, created_by, updated_at, updated_by, deleted,
+                                    name, email, password, phone, role)
+                VALUES (?, 0, ?, ?, ?, ?, false, ?, ?, ?, ?, ?)
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                int roll = random.nextInt(100);
+                statement.setLong(1, id);
+                setAudit(statement, 2);
+                statement.setString(6, randomName());
+                statement.setString(7, "member" + id + "@" + SeedVocabulary.MEMBER_EMAIL_DOMAIN);
+                statement.setString(8, passwordHash);
+                statement.setString(9, String.format("9%09d", id % 1_000_000_000L));
+                // The first member is always an admin, so the admin endpoints can be exercised
+                statement.setString(10, i == 0 || roll == 0 ? "ADMIN" : roll < 20 ? "FACULTY" : "STUDENT");
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return firstId;
+    }
+
+    private long insertTransactions(int count, long firstBookId, long firstMemberId) throws SQLException {
+        long firstId = reserveIds("book_transaction_seq", count);
+        ZipfSampler books = new ZipfSampler(settings.books(), 1.0);
+        ZipfSampler members = new ZipfSampler(settings.members(), 1.0);
+        String sql = """
+                INSERT INTO book_transaction (id, version, created_at, created_by, updated_at, updated_by, deleted,
+                                              book_fk, member_fk, request_date, status, issue_date, due_date, return_date)
+                VALUES (?, 0, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?, ?)
+                """;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < count; i++) {
+                LocalDate requestDate = today.minusDays(random.nextInt(365));
+                boolean recent = requestDate.isAfter(today.minusDays(30));
+                int roll = random.nextInt(100);
+                String status;
+                if (recent) {
+                    status = roll < 30 ? "REQUESTED" : roll < 80 ? "APPROVED" : roll < 95 ? "RETURNED" : "CANCELLED";
+                } else {
+                    // Old loans still open are the overdue ones
+                    status = roll < 85 ? "RETURNED" : roll < 95 ? "CANCELLED" : "APPROVED";
+                }
+                LocalDate issueDate = null;
+                LocalDate dueDate = null;
+                LocalDate returnDate = null;
+                if (status.equals("APPROVED") || status.equals("RETURNED")) {
+                    issueDate = requestDate.plusDays(1);
+                    dueDate = issueDate.plusDays(14);
+                }
+                if (status.equals("RETURNED")) {
+                    returnDate = min(issueDate.plusDays(1 + random.nextInt(20)), today);
+                }
+
+                statement.setLong(1, firstId + i);
+                setAudit(statement, 2);
+                statement.setLong(6, firstBookId + books.next(random));
+                statement.setLong(7, firstMemberId + members.next(random));
+                statement.setDate(8, Date.valueOf(requestDate));
+                statement.setString(9, status);
+                statement.setDate(10, issueDate == null ? null : Date.valueOf(issueDate));
+                statement.setDate(11, dueDate == null ? null : Date.valueOf(dueDate));
+                statement.setDate(12, returnDate == null ? null : Date.valueOf(returnDate));
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+        return firstId;
+    }
+
+    private void rebuildDerivedState(long firstBookId) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("""
+                    UPDATE book b
+                    SET copies_available = greatest(b.copies_available - open_loans.total, 0)
+                    FROM (SELECT book_fk, count(*) AS total
+                          FROM book_transaction
+                          WHERE status = 'APPROVED' AND return_date IS NULL AND book_fk >= %d
+                          GROUP BY book_fk) open_loans
+                    WHERE b.id = open_loans.book_fk
+                    """.formatted(firstBookId));
+            // Same recount as the circulation counters' reconciliation, collapsed onto stripe 0
+            statement.executeUpdate("DELETE FROM circulation_stats");
+            statement.executeUpdate("""
+                    INSERT INTO circulation_stats (counter, stripe, counter_value)
+                    SELECT 'BOOKS', 0, count(*) FROM book
+                    UNION ALL
+                    SELECT 'MEMBERS', 0, count(*) FROM member
+                    UNION ALL
+                    SELECT 'REQUESTED', 0, count(*) FROM book_transaction WHERE status = 'REQUESTED'
+                    UNION ALL
+                    SELECT 'BORROWED', 0, count(*) FROM book_transaction WHERE return_date IS NULL AND status = 'APPROVED'
+                    """);
+            // Member summaries are rebuilt from the transactions on first read
+            statement.executeUpdate("DELETE FROM member_circulation_summary");
+            statement.execute("ANALYZE book");
+            statement.execute("ANALYZE member");
+            statement.execute("ANALYZE book_transaction");
+        }
+        connection.commit();
+    }
+
+    /**
+     * Advances the sequence past {@code count} ids in one call and returns the first of them.
+     */
+    private long reserveIds(String sequence, int count) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT setval('%s', nextval('%s') + %d - 1)".formatted(sequence, sequence, count))) {
+            resultSet.next();
+            return resultSet.getLong(1) - count + 1;
+        }
+    }
+
+    private void setAudit(PreparedStatement statement, int firstIndex) throws SQLException {
+        statement.setTimestamp(firstIndex, now);
+        statement.setString(firstIndex + 1, SEEDED_BY);
+        statement.setTimestamp(firstIndex + 2, now);
+        statement.setString(firstIndex + 3, SEEDED_BY);
+    }
+
+    private void addBatch(PreparedStatement statement, int index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+
+    private String randomName() {
+        return SeedVocabulary.FIRST_NAMES.get(random.nextInt(SeedVocabulary.FIRST_NAMES.size())) + " "
+                + SeedVocabulary.LAST_NAMES.get(random.nextInt(SeedVocabulary.LAST_NAMES.size()));
+    }
+
+    private String pick(List<String> values, ZipfSampler sampler) {
+        return values.get(sampler.next(random));
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static LocalDate min(LocalDate first, LocalDate second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static long timed(String step, int rows, SeedStep seedStep) throws SQLException {
+        long start = System.nanoTime();
+        long result = seedStep.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (rows > 0) {
+            System.out.printf("Seeded %,d %s in %.1fs (%,.0f rows/s)%n", rows, step, seconds, rows / seconds);
+        } else {
+            System.out.printf("Rebuilt %s in %.1fs%n", step, seconds);
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface SeedStep {
+        long run() throws SQLException;
+    }
+}
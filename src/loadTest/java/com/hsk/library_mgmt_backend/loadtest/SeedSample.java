@@ -0,0 +1,76 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The seeded books and members the scenarios pick from, in id order so that the Zipf samplers
+ * favour the same books and members the seed generator made popular.
+ */
+final class SeedSample {
+
+    private final List<Long> bookIds;
+    private final List<Long> memberIds;
+    private final List<Long> adminIds;
+    private final ZipfSampler books;
+    private final ZipfSampler members;
+
+    private SeedSample(List<Long> bookIds, List<Long> memberIds, List<Long> adminIds) {
+        if (bookIds.isEmpty() || memberIds.isEmpty() || adminIds.isEmpty()) {
+            throw new IllegalStateException("No seeded books, members or admins found, run seedLoadTestData first");
+        }
+        this.bookIds = bookIds;
+        this.memberIds = memberIds;
+        this.adminIds = adminIds;
+        this.books = new ZipfSampler(bookIds.size(), 1.0);
+        this.members = new ZipfSampler(memberIds.size(), 1.0);
+    }
+
+    static SeedSample load(LoadTestSettings settings) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                settings.jdbcUrl(), settings.jdbcUser(), settings.jdbcPassword())) {
+            return new SeedSample(
+                    ids(connection, "SELECT id FROM book WHERE isbn LIKE ? ORDER BY id",
+                            SeedVocabulary.ISBN_PREFIX + "%"),
+                    ids(connection, "SELECT id FROM member WHERE email LIKE ? ORDER BY id",
+                            "%@" + SeedVocabulary.MEMBER_EMAIL_DOMAIN),
+                    ids(connection, "SELECT id FROM member WHERE email LIKE ? AND role = 'ADMIN' ORDER BY id",
+                            "%@" + SeedVocabulary.MEMBER_EMAIL_DOMAIN));
+        }
+    }
+
+    long bookId(RandomGenerator random) {
+        return bookIds.get(books.next(random));
+    }
+
+    long memberId(RandomGenerator random) {
+        return memberIds.get(members.next(random));
+    }
+
+    long adminId(RandomGenerator random) {
+        return adminIds.get(random.nextInt(adminIds.size()));
+    }
+
+    static String email(long memberId) {
+        return "member" + memberId + "@" + SeedVocabulary.MEMBER_EMAIL_DOMAIN;
+    }
+
+    private static List<Long> ids(Connection connection, String sql, String pattern) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, pattern);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
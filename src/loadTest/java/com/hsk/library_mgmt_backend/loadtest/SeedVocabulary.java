@@ -0,0 +1,38 @@
+package com.hsk.library_mgmt_backend.loadtest;
+
+import java.util.List;
+
+/**
+ * Words the seeded catalog is built from. The runner searches with the same words, so catalog
+ * searches hit real titles, authors and genres.
+ */
+final class SeedVocabulary {
+
+    static final List<String> TITLE_WORDS = List.of(
+            "history", "science", "garden", "river", "empire", "silent", "journey", "data", "ocean", "light",
+            "shadow", "city", "machine", "forest", "winter", "music", "secret", "stone", "mountain", "storm",
+            "language", "island", "kingdom", "memory", "design", "night", "mind", "war", "peace", "fire",
+            "code", "star", "desert", "bridge", "summer", "voyage", "theory", "glass", "harbor", "iron",
+            "castle", "dream", "signal", "market", "atlas", "engine", "valley", "letter", "mirror", "crown");
+
+    static final List<String> FIRST_NAMES = List.of(
+            "Anita", "Ravi", "Maria", "John", "Priya", "Ahmed", "Chen", "Olga", "Kofi", "Lucia",
+            "Arjun", "Emma", "Hiro", "Fatima", "Lars", "Meera", "Diego", "Sara", "Tomas", "Yuki");
+
+    static final List<String> LAST_NAMES = List.of(
+            "Sharma", "Smith", "Garcia", "Kumar", "Nguyen", "Ivanova", "Mensah", "Rossi", "Tanaka", "Khan",
+            "Muller", "Silva", "Iyer", "Brown", "Haddad", "Novak", "Lopez", "Rao", "Berg", "Okafor");
+
+    static final List<String> GENRES = List.of(
+            "Fiction", "Science", "History", "Biography", "Technology", "Poetry",
+            "Children", "Mystery", "Philosophy", "Travel", "Art", "Reference");
+
+    /** Seeded members sign in as {@code member<id>@} this domain with the configured password. */
+    static final String MEMBER_EMAIL_DOMAIN = "loadtest.example";
+
+    /** Seeded books have ISBNs with this prefix. */
+    static final String ISBN_PREFIX = "LT-";
+
+    private SeedVocabulary() {
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import static com.hsk.library_mgmt_backend.web.v1.enums.Role.ADMIN;
 
+@EnableScheduling
 @SpringBootApplication
 public class LibraryMgmtBackendApplication {
 
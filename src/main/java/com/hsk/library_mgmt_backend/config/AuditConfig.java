@@ -0,0 +1,22 @@
+package com.hsk.library_mgmt_backend.config;
+
+import com.hsk.library_mgmt_backend.service.audit.AuditMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AuditConfig {
+
+    /**
+     * Turns off the Envers listeners when the audit outbox writes the audit rows instead.
+     *
+     * @param mode the configured audit mode.
+     * @return Hibernate properties customizer registering Envers only in {@link AuditMode#ENVERS} mode.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer auditModeCustomizer(@Value("${library.audit.mode:ENVERS}") AuditMode mode) {
+        return properties -> properties.put("hibernate.integration.envers.enabled", mode == AuditMode.ENVERS);
+    }
+}
@@ -1,29 +1,81 @@
 package com.hsk.library_mgmt_backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * Service class for handling JWT (JSON Web Token) operations.
  * <p>
  * This service provides methods to generate, validate, and extract information from JWT tokens.
+ * The signing key and the parser are built once from {@code jwt-secret-key}. Verified tokens are
+ * remembered by the SHA-256 of the token until they expire, so a client repeating the same bearer
+ * token is verified once; {@code library.security.token-cache.max-tokens} bounds that cache.
  * </p>
  */
 @Service
 public class JWTService {
 
-    @Value("${jwt-secret-key}")
-    private String SECRET_KEY;
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JWTService(@Value("${jwt-secret-key}") String secretKey,
+                      @Value("${library.security.token-cache.max-tokens:10000}") long maxTokens,
+                      MeterRegistry meterRegistry) {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parser().verifyWith(signInKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verified-tokens");
+    }
+
+    /**
+     * Verifies the signature and expiry of the JWT token and returns its claims.
+     * <p>
+     * The token is parsed at most once while it is valid; later calls with the same token are
+     * served from the verified-token cache.
+     * </p>
+     *
+     * @param token the JWT token to verify.
+     * @return the claims contained in the token.
+     * @throws JwtException if the token is malformed, wrongly signed or expired.
+     */
+    public Claims verify(String token) {
+        String key = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(key, claims);
+            }
+        }
+        return claims;
+    }
 
     /**
      * Extracts the username from the JWT token.
@@ -44,7 +96,7 @@ public class JWTService {
      * @return the extracted claim.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
@@ -75,7 +127,7 @@ public class JWTService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 10))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
@@ -87,52 +139,65 @@ public class JWTService {
      * @return true if the token is valid, false otherwise.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
     /**
-     * Checks if the JWT token is expired.
+     * Validates already verified claims against the provided user details.
      *
-     * @param token the JWT token to be checked.
-     * @return true if the token is expired, false otherwise.
+     * @param claims the claims returned by {@link #verify(String)}.
+     * @param userDetails the user details to check the token against.
+     * @return true if the claims belong to the user and have not expired, false otherwise.
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
     /**
-     * Extracts the expiration date from the JWT token.
+     * Checks if the claims are expired.
      *
-     * @param token the JWT token from which the expiration date needs to be extracted.
-     * @return the expiration date of the token.
+     * @param claims the claims to be checked.
+     * @return true if the token is expired, false otherwise.
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
     /**
-     * Extracts all claims from the JWT token.
+     * Hashes the token so the cache does not hold usable bearer tokens.
      *
-     * @param token the JWT token from which claims need to be extracted.
-     * @return the claims contained in the token.
+     * @param token the JWT token to hash.
+     * @return the Base64 encoded SHA-256 digest of the token.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     /**
-     * Retrieves the signing key used for JWT token signing.
-     *
-     * @return the SecretKey used for signing JWT tokens.
+     * Keeps each verified token until the expiration it carries.
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
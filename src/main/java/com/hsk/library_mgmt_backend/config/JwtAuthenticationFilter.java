@@ -1,5 +1,6 @@
 package com.hsk.library_mgmt_backend.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,14 +27,14 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JWTService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     /**
      * Filters incoming HTTP requests for JWT authentication.
      * <p>
      * This method checks for the presence of the `Authorization` header and verifies if it starts with "Bearer ".
-     * If a valid JWT is found, it extracts the username, loads user details, validates the token,
-     * and sets the authentication in the Spring Security context.
+     * If a valid JWT is found, it verifies the token once, loads the user details of its subject,
+     * checks the claims against them, and sets the authentication in the Spring Security context.
      * </p>
      *
      * @param request the {@link HttpServletRequest} object that contains the request details.
@@ -51,6 +51,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final Claims claims;
         final String userEmail;
 
         // Check if the Authorization header is present and starts with "Bearer "
@@ -58,14 +59,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
         } else {
             jwt = authHeader.substring(7); // Extract the JWT from the header
-            userEmail = jwtService.extractUsername(jwt); // Extract the username from the JWT
+            claims = jwtService.verify(jwt); // Verify the JWT once, or reuse its earlier verification
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Load user details from the email
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // Load user details from the email, served from the cache after the first request
+                UserDetails userDetails = this.principalCache.loadUserByUsername(userEmail);
 
-                // Validate the JWT
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                // Validate the claims against the user
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     // Create an authentication token and set it in the security context
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
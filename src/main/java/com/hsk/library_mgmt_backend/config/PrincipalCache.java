@@ -0,0 +1,95 @@
+package com.hsk.library_mgmt_backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsk.library_mgmt_backend.service.event.MemberChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of the user details of authenticated members, keyed by email.
+ * <p>
+ * Used by {@link JwtAuthenticationFilter} so authenticated requests do not load the member from the
+ * database. An immutable {@link User} copy of the member is cached, not the member entity, so requests
+ * sharing an entry cannot change it and it holds no persistence state. Entries are invalidated when the member is updated or deleted, both right away and once
+ * the change commits, and expire after {@code library.security.principal-cache.ttl} to bound staleness
+ * from changes made on other nodes.
+ * </p>
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(UserDetailsService userDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${library.security.principal-cache.max-members:10000}") long maxMembers,
+                          @Value("${library.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxMembers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Returns the user details for the email, loading them on a miss.
+     *
+     * @param email the member's email
+     * @return the user details of the member
+     * @throws org.springframework.security.core.userdetails.UsernameNotFoundException if no member has the email
+     */
+    public UserDetails loadUserByUsername(String email) {
+        return cache.get(email, key -> copyOf(userDetailsService.loadUserByUsername(key)));
+    }
+
+    @EventListener
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.isCreated()) {
+            return;
+        }
+        invalidate(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Drop anything reloaded from the old row while the change was being committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(event);
+                }
+            });
+        }
+    }
+
+    private static UserDetails copyOf(UserDetails userDetails) {
+        return User.withUsername(userDetails.getUsername())
+                .password(userDetails.getPassword())
+                .authorities(userDetails.getAuthorities())
+                .accountExpired(!userDetails.isAccountNonExpired())
+                .accountLocked(!userDetails.isAccountNonLocked())
+                .credentialsExpired(!userDetails.isCredentialsNonExpired())
+                .disabled(!userDetails.isEnabled())
+                .build();
+    }
+
+    private void invalidate(MemberChangedEvent event) {
+        if (event.previousEmail() != null) {
+            cache.invalidate(event.previousEmail());
+        }
+        if (event.currentEmail() != null) {
+            cache.invalidate(event.currentEmail());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hsk.library_mgmt_backend.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -42,6 +43,7 @@ public class SecurityConfiguration {
                 .cors(Customizer.withDefaults()) // Enables default CORS configuration
                 .authorizeHttpRequests(authorizeHttpRequests ->
                         authorizeHttpRequests
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Lets event streams complete; the request was authorized on dispatch
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/api/v1/auth/**").permitAll() // Allows public access to Swagger UI and authentication endpoints
                                 .anyRequest().authenticated() // Requires authentication for all other requests
                 )
@@ -0,0 +1,26 @@
+package com.hsk.library_mgmt_backend.dto;
+
+import org.hibernate.envers.RevisionType;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One audited change of an entity.
+ *
+ * @param rev          the revision that recorded the change
+ * @param revisionType whether the entity was added, modified or deleted
+ * @param timestamp    when the revision was recorded
+ * @param username     who made the change
+ * @param userType     the role of who made the change
+ * @param entityId     the ID of the changed entity
+ * @param state        the audited fields of the entity after the change; empty for a deletion
+ */
+public record AuditEntryDto(long rev,
+                            RevisionType revisionType,
+                            Instant timestamp,
+                            String username,
+                            String userType,
+                            long entityId,
+                            Map<String, Object> state) {
+}
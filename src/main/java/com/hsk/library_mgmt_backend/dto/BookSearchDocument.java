@@ -0,0 +1,19 @@
+package com.hsk.library_mgmt_backend.dto;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+
+import java.io.Serializable;
+
+/**
+ * Searchable fields of a {@link Book}, used to maintain in-memory search structures.
+ */
+public record BookSearchDocument(Long id,
+                                 String title,
+                                 String author,
+                                 String isbn,
+                                 String genre) implements Serializable {
+
+    public static BookSearchDocument of(Book book) {
+        return new BookSearchDocument(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getGenre());
+    }
+}
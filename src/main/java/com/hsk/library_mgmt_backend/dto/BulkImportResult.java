@@ -0,0 +1,16 @@
+package com.hsk.library_mgmt_backend.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: the items that were created and, for the others, why they were rejected.
+ * A rejected item never prevents the rest of the request from being imported.
+ *
+ * @param created  the created items, in the order they were saved
+ * @param failures the rejected items, ordered by their position in the request
+ * @param <T>      the type of the created items
+ */
+public record BulkImportResult<T>(List<T> created,
+                                  List<BulkItemFailure> failures) implements Serializable {
+}
@@ -0,0 +1,15 @@
+package com.hsk.library_mgmt_backend.dto;
+
+import java.io.Serializable;
+
+/**
+ * An item of a bulk request that was not imported.
+ *
+ * @param index   the position of the item in the request, starting at 0
+ * @param key     the natural key of the item, such as the ISBN of a book
+ * @param message why the item was rejected
+ */
+public record BulkItemFailure(int index,
+                              String key,
+                              String message) implements Serializable {
+}
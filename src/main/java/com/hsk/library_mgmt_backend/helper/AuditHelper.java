@@ -0,0 +1,28 @@
+package com.hsk.library_mgmt_backend.helper;
+
+import com.hsk.library_mgmt_backend.dto.AuditEntryDto;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
+import com.hsk.library_mgmt_backend.response.ResponsePaginationUtil;
+import com.hsk.library_mgmt_backend.service.AuditService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class AuditHelper {
+    private final AuditService auditService;
+
+    public ResponsePaginationData<List<AuditEntryDto>> getEntityHistory(String entity, Long id, String cursor, int pageSize) {
+        CursorPage<AuditEntryDto> auditEntryPage = auditService.getEntityHistory(entity, id, cursor, pageSize);
+        return ResponsePaginationUtil.responseCursorConverter(auditEntryPage.content(), auditEntryPage.nextCursor());
+    }
+
+    public ResponsePaginationData<List<AuditEntryDto>> getChanges(String entity, Instant from, Instant to, String cursor, int pageSize) {
+        CursorPage<AuditEntryDto> auditEntryPage = auditService.getChanges(entity, from, to, cursor, pageSize);
+        return ResponsePaginationUtil.responseCursorConverter(auditEntryPage.content(), auditEntryPage.nextCursor());
+    }
+}
@@ -1,13 +1,21 @@
 package com.hsk.library_mgmt_backend.helper;
 
 import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
 import com.hsk.library_mgmt_backend.mapper.BookMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.response.BookImportJobResponse;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationUtil;
 import com.hsk.library_mgmt_backend.response.ResponseUtil;
 import com.hsk.library_mgmt_backend.service.BookService;
+import com.hsk.library_mgmt_backend.service.importing.BookBatchImporter;
+import com.hsk.library_mgmt_backend.service.importing.BookImportFormat;
+import com.hsk.library_mgmt_backend.service.importing.BookImportJob;
+import com.hsk.library_mgmt_backend.service.importing.BookImportJobs;
 import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
 import com.hsk.library_mgmt_backend.web.v1.payload.book.BulkBookRequest;
 import jakarta.validation.Valid;
@@ -17,6 +25,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BindingResult;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Component
@@ -24,6 +34,8 @@ import java.util.List;
 public class BookHelper {
     private final BookService bookService;
     private final BookMapper bookMapper;
+    private final BookBatchImporter bookBatchImporter;
+    private final BookImportJobs bookImportJobs;
 
     public ResponseData<BookDto> addBook(BookRequest bookRequest, BindingResult bindingResult) {
         BindingResultHelper.processBindingResult(bindingResult);
@@ -44,6 +56,19 @@ public class BookHelper {
                 bookDtoPage.getNumber());
     }
 
+    public ResponsePaginationData<List<BookDto>> withGenreFacets(ResponsePaginationData<List<BookDto>> page, String query) {
+        return ResponsePaginationUtil.withFacets(page, bookService.getBookGenreFacets(query));
+    }
+
+    public ResponsePaginationData<List<BookDto>> getAllBooksByCursor(String cursor, int pageSize, String query, String genre) {
+        CursorPage<BookDto> bookDtoPage = bookService.getAllBookByCursor(cursor, pageSize, query, genre);
+        return ResponsePaginationUtil.responseCursorConverter(bookDtoPage.content(), bookDtoPage.nextCursor());
+    }
+
+    public ResponseData<List<BookSuggestionResponse>> suggestBooks(String prefix, int limit) {
+        return ResponseUtil.responseConverter(bookService.suggestBooks(prefix, limit));
+    }
+
     public ResponseData<BookDto> updateBookById(Long id, BookRequest bookRequest, BindingResult bindingResult) {
         BindingResultHelper.processBindingResult(bindingResult);
         Book book = bookService.updateBookById(id, bookMapper.toEntity(bookRequest));
@@ -55,9 +80,26 @@ public class BookHelper {
         return ResponseUtil.responseConverter(null);
     }
 
-    public ResponseData<List<BookDto>> addBookBulky(BulkBookRequest request, BindingResult bindingResult) {
+    public ResponseData<BulkImportResult<BookDto>> addBookBulky(BulkBookRequest request, BindingResult bindingResult) {
         BindingResultHelper.processBindingResult(bindingResult);
-        List<Book> income = bookService.addBookBulky(bookMapper.toEntity(request.bookRequestList()));
-        return ResponseUtil.responseConverter(bookMapper.toDto(income), 201);
+        List<BookRequest> bookRequests = request.bookRequestList() == null ? List.of() : request.bookRequestList();
+        BulkImportResult<Book> result = bookBatchImporter.importBatch(bookRequests);
+        return ResponseUtil.responseConverter(
+                new BulkImportResult<>(bookMapper.toDto(result.created()), result.failures()), 201);
+    }
+
+    public ResponseData<BookImportJobResponse> importBooks(String contentType, InputStream body) throws IOException {
+        BookImportJob job = bookImportJobs.start(body, BookImportFormat.fromContentType(contentType));
+        return ResponseUtil.responseConverter(toImportJobResponse(job), 202);
+    }
+
+    public ResponseData<BookImportJobResponse> getImportJob(String jobId) {
+        return ResponseUtil.responseConverter(toImportJobResponse(bookImportJobs.get(jobId)));
+    }
+
+    private static BookImportJobResponse toImportJobResponse(BookImportJob job) {
+        return new BookImportJobResponse(job.getId(), job.getFormat(), job.getStatus(), job.getRecordsRead(),
+                job.getImported(), job.getRejected(), job.getFailures(), job.getCreatedAt(), job.getFinishedAt(),
+                job.getError());
     }
 }
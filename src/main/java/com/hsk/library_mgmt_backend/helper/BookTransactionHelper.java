@@ -3,6 +3,7 @@ package com.hsk.library_mgmt_backend.helper;
 import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
 import com.hsk.library_mgmt_backend.mapper.BookTransactionMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationUtil;
@@ -36,14 +37,19 @@ public class BookTransactionHelper {
         return ResponseUtil.responseConverter(bookTransactionMapper.toDto(income));
     }
 
-    public ResponsePaginationData<List<BookTransactionDto>> getAllBookTransactions(Pageable pageable,String query, @Valid String status, Long memberId) {
-        Page<BookTransactionDto> bookTransactionDtoPage = bookTransactionService.getAllBookTransaction(pageable,query, status,memberId);
+    public ResponsePaginationData<List<BookTransactionDto>> getAllBookTransactions(Pageable pageable,String query, @Valid String status, Long memberId, boolean includeArchived) {
+        Page<BookTransactionDto> bookTransactionDtoPage = bookTransactionService.getAllBookTransaction(pageable,query, status,memberId, includeArchived);
         return ResponsePaginationUtil.responsePaginationConverter(bookTransactionDtoPage.getContent(),
                 bookTransactionDtoPage.getTotalElements(),
                 bookTransactionDtoPage.getTotalPages(),
                 bookTransactionDtoPage.getNumber());
     }
 
+    public ResponsePaginationData<List<BookTransactionDto>> getAllBookTransactionsByCursor(String cursor, int pageSize, String query, String status, Long memberId, boolean includeArchived) {
+        CursorPage<BookTransactionDto> bookTransactionDtoPage = bookTransactionService.getAllBookTransactionByCursor(cursor, pageSize, query, status, memberId, includeArchived);
+        return ResponsePaginationUtil.responseCursorConverter(bookTransactionDtoPage.content(), bookTransactionDtoPage.nextCursor());
+    }
+
     public ResponseData<BookTransactionDto> updateBookTransactionById(Long id, BookTransactionUpdateRequest bookTransactionRequest, BindingResult bindingResult) {
         BindingResultHelper.processBindingResult(bindingResult);
         BookTransaction bookTransaction = bookTransactionService.updateBookTransactionById(id, bookTransactionRequest);
@@ -7,18 +7,26 @@ import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponseUtil;
 import com.hsk.library_mgmt_backend.service.BookService;
 import com.hsk.library_mgmt_backend.service.DashboardService;
+import com.hsk.library_mgmt_backend.service.circulation.AdminDashboardBroadcaster;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Component
 @RequiredArgsConstructor
 public class DashboardHelper {
     private final DashboardService dashboardService;
+    private final AdminDashboardBroadcaster adminDashboardBroadcaster;
+
     public ResponseData<AdminDashboardCountResponse> getAdminDashboardCount() {
         AdminDashboardCountResponse response = dashboardService.getAdminDashboardCount();
         return ResponseUtil.responseConverter(response);
     }
 
+    public SseEmitter streamAdminDashboardCount() {
+        return adminDashboardBroadcaster.subscribe();
+    }
+
     public ResponseData<MemberDashboardCountResponse> getMemberDashboardCount(Long memberId) {
         MemberDashboardCountResponse response = dashboardService.getMemberDashboardCount(memberId);
         return ResponseUtil.responseConverter(response);
@@ -3,6 +3,7 @@ package com.hsk.library_mgmt_backend.helper;
 import com.hsk.library_mgmt_backend.dto.MemberDto;
 import com.hsk.library_mgmt_backend.mapper.MemberMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationUtil;
@@ -43,6 +44,11 @@ public class MemberHelper {
                 memberDtoPage.getNumber());
     }
 
+    public ResponsePaginationData<List<MemberDto>> getAllMembersByCursor(String cursor, int pageSize, String query) {
+        CursorPage<MemberDto> memberDtoPage = memberService.getAllMemberByCursor(cursor, pageSize, query);
+        return ResponsePaginationUtil.responseCursorConverter(memberDtoPage.content(), memberDtoPage.nextCursor());
+    }
+
     public ResponseData<MemberDto> updateMemberById(Long id, MemberRequest memberRequest, BindingResult bindingResult) {
         BindingResultHelper.processBindingResult(bindingResult);
         Member member = memberService.updateMemberById(id, memberRequest);
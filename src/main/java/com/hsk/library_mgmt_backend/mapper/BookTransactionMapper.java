@@ -2,6 +2,7 @@ package com.hsk.library_mgmt_backend.mapper;
 
 import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
 import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransactionHistory;
 import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionRequest;
 import org.mapstruct.*;
 
@@ -15,6 +16,10 @@ public interface BookTransactionMapper {
 
     List<BookTransactionDto> toDto(List<BookTransaction> bookRequest);
 
+    BookTransactionDto toDto(BookTransactionHistory bookTransactionHistory);
+
+    List<BookTransactionDto> historyToDto(List<BookTransactionHistory> bookTransactionHistory);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     BookTransaction partialUpdate(BookTransactionDto borrowedBookDto, @MappingTarget BookTransaction borrowedBook);
 }
\ No newline at end of file
@@ -19,7 +19,7 @@ import java.time.LocalDate;
 @Table(name = "book")
 @RequiredArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
-@SequenceGenerator(name = "book_seq", allocationSize = 1)
+@SequenceGenerator(name = "book_seq", allocationSize = 50)
 public class Book extends BaseEntity implements Serializable {
 
     @Serial
@@ -18,13 +18,23 @@ import java.time.LocalDate;
 @Setter
 @Audited
 @Table(name = "book_transaction")
+@NamedEntityGraph(name = BookTransaction.WITH_BOOK_AND_MEMBER, attributeNodes = {
+        @NamedAttributeNode("book"),
+        @NamedAttributeNode("member")
+})
 @RequiredArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
-@SequenceGenerator(name = "book_transaction_seq", allocationSize = 1)
+@SequenceGenerator(name = "book_transaction_seq", allocationSize = 50)
 public class BookTransaction extends BaseEntity implements Serializable {
 
     @Serial
     private static final long serialVersionUID = -5576653075671844783L;
+
+    /**
+     * Fetch graph loading the book and the member with the transaction, as needed by {@code BookTransactionDto}.
+     */
+    public static final String WITH_BOOK_AND_MEMBER = "BookTransaction.withBookAndMember";
+
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_transaction_seq")
     @Id
     private Long id;
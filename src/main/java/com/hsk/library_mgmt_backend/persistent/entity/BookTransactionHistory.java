@@ -0,0 +1,64 @@
+package com.hsk.library_mgmt_backend.persistent.entity;
+
+import com.hsk.library_mgmt_backend.persistent.entity.base.BaseEntity;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Read-only view of every book transaction, the active ones in {@code book_transaction} and the closed
+ * loans moved to {@code book_transaction_archive}, through the {@code book_transaction_history} view.
+ */
+@Entity
+@Getter
+@Immutable
+@Subselect("SELECT * FROM book_transaction_history")
+@Synchronize({"book_transaction", "book_transaction_archive"})
+@NamedEntityGraph(name = BookTransactionHistory.WITH_BOOK_AND_MEMBER, attributeNodes = {
+        @NamedAttributeNode("book"),
+        @NamedAttributeNode("member")
+})
+@RequiredArgsConstructor
+public class BookTransactionHistory extends BaseEntity implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 3954620781196412047L;
+
+    /**
+     * Fetch graph loading the book and the member with the transaction, as needed by {@code BookTransactionDto}.
+     */
+    public static final String WITH_BOOK_AND_MEMBER = "BookTransactionHistory.withBookAndMember";
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_fk")
+    private Book book;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_fk")
+    private Member member;
+
+    @Column(name = "request_date")
+    private LocalDate requestDate;
+
+    @Enumerated(EnumType.STRING)
+    private BookTransaction.Status status;
+
+    @Column(name = "issue_date")
+    private LocalDate issueDate;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "return_date")
+    private LocalDate returnDate;
+}
@@ -0,0 +1,61 @@
+package com.hsk.library_mgmt_backend.persistent.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * One stripe of a library-wide circulation counter.
+ * <p>
+ * A counter's value is the sum of its stripes. Writers add to a random stripe so concurrent
+ * transactions rarely wait on the same row lock.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "circulation_stats")
+@RequiredArgsConstructor
+public class CirculationStat implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 4410827215391307468L;
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false, name = "counter_value")
+    private long counterValue;
+
+    public enum Counter {
+        BOOKS,
+        MEMBERS,
+        REQUESTED,
+        BORROWED,
+        /**
+         * Not stored: counted when read, since loans become overdue as days pass.
+         */
+        OVERDUE
+    }
+
+    @Getter
+    @Setter
+    @Embeddable
+    @RequiredArgsConstructor
+    public static class Key implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = -2706387906587129530L;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 32)
+        private Counter counter;
+
+        @Column(nullable = false)
+        private short stripe;
+    }
+}
@@ -25,7 +25,7 @@ import java.util.Objects;
 @Table(name = "member")
 @RequiredArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
-@SequenceGenerator(name = "member_seq", allocationSize = 1)
+@SequenceGenerator(name = "member_seq", allocationSize = 50)
 public class Member extends BaseEntity implements Serializable, UserDetails {
 
     @Serial
@@ -0,0 +1,43 @@
+package com.hsk.library_mgmt_backend.persistent.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Read model of a member's book transaction counts, kept current on every transaction change.
+ * <p>
+ * Rows are created on first use from the member's transactions and updated with deltas afterwards.
+ * Overdue loans are not stored because they change as days pass.
+ * </p>
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "member_circulation_summary")
+@RequiredArgsConstructor
+public class MemberCirculationSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 7841502395063170952L;
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(nullable = false, name = "total_books")
+    private long totalBooks;
+
+    @Column(nullable = false, name = "requested_books")
+    private long requestedBooks;
+
+    @Column(nullable = false, name = "borrowed_books")
+    private long borrowedBooks;
+}
@@ -0,0 +1,28 @@
+package com.hsk.library_mgmt_backend.persistent.entity.base;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * The user recorded on an audit revision.
+ *
+ * @param username the signed-in user, or {@code system} for unauthenticated and background work
+ * @param userType the role authority of the user, or {@code OFFICER} when there is none
+ */
+public record RevisionAuditor(String username, String userType) {
+
+    private static final String CURRENT_AUDITOR = "system";
+
+    /**
+     * @return the auditor of the work running on the current thread
+     */
+    public static RevisionAuditor current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof UsernamePasswordAuthenticationToken) {
+            String userType = String.valueOf(authentication.getAuthorities().stream().filter(role -> role.getAuthority().startsWith("ROLE_")).findFirst().get());
+            return new RevisionAuditor(authentication.getName(), userType);
+        }
+        return new RevisionAuditor(CURRENT_AUDITOR, "OFFICER");
+    }
+}
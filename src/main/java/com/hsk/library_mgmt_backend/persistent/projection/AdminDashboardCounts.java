@@ -0,0 +1,17 @@
+package com.hsk.library_mgmt_backend.persistent.projection;
+
+/**
+ * Library-wide counts shown on the admin dashboard, computed in one statement.
+ */
+public interface AdminDashboardCounts {
+
+    long getTotalBooks();
+
+    long getTotalBorrowedBooks();
+
+    long getTotalOverdueBooks();
+
+    long getTotalRequestedBooks();
+
+    long getTotalMembers();
+}
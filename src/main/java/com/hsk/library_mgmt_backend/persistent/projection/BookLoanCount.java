@@ -0,0 +1,11 @@
+package com.hsk.library_mgmt_backend.persistent.projection;
+
+/**
+ * Number of loans of a book, including the closed ones moved to the archive.
+ */
+public interface BookLoanCount {
+
+    Long getBookId();
+
+    long getLoans();
+}
@@ -0,0 +1,13 @@
+package com.hsk.library_mgmt_backend.persistent.projection;
+
+import com.hsk.library_mgmt_backend.persistent.entity.CirculationStat;
+
+/**
+ * The value of a circulation counter summed over its stripes.
+ */
+public interface CounterTotal {
+
+    CirculationStat.Counter getCounter();
+
+    long getTotal();
+}
@@ -0,0 +1,14 @@
+package com.hsk.library_mgmt_backend.persistent.projection;
+
+/**
+ * Number of books in a genre, as returned by grouped genre queries.
+ */
+public interface GenreCount {
+
+    /**
+     * @return the lower-cased genre
+     */
+    String getGenre();
+
+    long getCount();
+}
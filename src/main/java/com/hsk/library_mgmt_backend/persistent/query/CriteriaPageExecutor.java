@@ -0,0 +1,220 @@
+package com.hsk.library_mgmt_backend.persistent.query;
+
+import com.hsk.library_mgmt_backend.persistent.entity.base.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_FETCH_GRAPH;
+
+/**
+ * Executes paginated Criteria queries for entities extending
+ * {@link com.hsk.library_mgmt_backend.persistent.entity.base.BaseEntity}.
+ * <p>
+ * The page is fetched with LIMIT/OFFSET ordered by {@code updatedAt DESC, id DESC}, and the
+ * total is computed by a separate projected {@code COUNT} query built from the same predicates.
+ * The count query is skipped when the total can be derived from the page itself
+ * (e.g. a short first page).
+ * </p>
+ * <p>
+ * {@link #findSlice} offers keyset pagination over the same order: it seeks past the
+ * {@code (updatedAt, id)} of the previous page instead of skipping rows, so every page costs
+ * the same regardless of its depth, and it never counts.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CriteriaPageExecutor {
+
+    @PersistenceContext
+    private final EntityManager entityManager;
+
+    /**
+     * Retrieves a page of entities matching the predicates.
+     *
+     * @param entityClass      the entity type to query
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param pageable         the pagination information
+     * @param <T>              the entity type
+     * @return a page of entities with the total element count
+     */
+    public <T> Page<T> findPage(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder, Pageable pageable) {
+        return findPage(entityClass, predicateBuilder, pageable, null);
+    }
+
+    /**
+     * Retrieves a page of entities matching the predicates, loading the associations of a named
+     * entity graph in the same statement. The graph only applies to the page query, not to the count.
+     *
+     * @param entityClass      the entity type to query
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param pageable         the pagination information
+     * @param entityGraph      the name of the fetch graph to apply, or null for none
+     * @param <T>              the entity type
+     * @return a page of entities with the total element count
+     */
+    public <T> Page<T> findPage(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder, Pageable pageable,
+                                String entityGraph) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        query.where(predicateBuilder.build(criteriaBuilder, root).toArray(new Predicate[0]));
+        query.orderBy(
+                criteriaBuilder.desc(root.get("updatedAt")),
+                criteriaBuilder.desc(root.get("id")) // Tie-breaker for a stable order
+        );
+
+        TypedQuery<T> typedQuery = withEntityGraph(entityManager.createQuery(query), entityGraph);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+
+        List<T> content = typedQuery.getResultList();
+
+        // Only runs the count query when the total cannot be derived from the page
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(entityClass, predicateBuilder));
+    }
+
+    /**
+     * Counts the entities matching the predicates.
+     *
+     * @param entityClass      the entity type to count
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param <T>              the entity type
+     * @return the number of matching entities
+     */
+    public <T> long count(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = countQuery.from(entityClass);
+        countQuery.select(criteriaBuilder.count(root));
+        countQuery.where(predicateBuilder.build(criteriaBuilder, root).toArray(new Predicate[0]));
+
+        long totalCount = entityManager.createQuery(countQuery).getSingleResult();
+        log.debug("Total {} count: {}", entityClass.getSimpleName(), totalCount);
+        return totalCount;
+    }
+
+    /**
+     * Counts the entities matching the predicates per lower-cased value of a string attribute.
+     * Entities where the attribute is null are left out.
+     *
+     * @param entityClass      the entity type to count
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param attribute        the string attribute to group by
+     * @param <T>              the entity type
+     * @return the counts keyed by lower-cased attribute value, largest first
+     */
+    public <T> Map<String, Long> countGroupedByLower(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder,
+                                                     String attribute) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> groupQuery = criteriaBuilder.createTupleQuery();
+        Root<T> root = groupQuery.from(entityClass);
+        Expression<String> group = criteriaBuilder.lower(root.get(attribute));
+        Expression<Long> count = criteriaBuilder.count(root);
+
+        List<Predicate> predicates = new ArrayList<>(predicateBuilder.build(criteriaBuilder, root));
+        predicates.add(criteriaBuilder.isNotNull(root.get(attribute)));
+        groupQuery.multiselect(group, count)
+                .where(predicates.toArray(new Predicate[0]))
+                .groupBy(group)
+                .orderBy(criteriaBuilder.desc(count), criteriaBuilder.asc(group));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(groupQuery).getResultList()) {
+            counts.put(tuple.get(0, String.class), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves the page of entities following the given cursor.
+     *
+     * @param entityClass      the entity type to query
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param cursor           the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize         the maximum number of entities to return
+     * @param <T>              the entity type
+     * @return the page of entities and the cursor of the next page
+     */
+    public <T extends BaseEntity> CursorPage<T> findSlice(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder,
+                                                          String cursor, int pageSize) {
+        return findSlice(entityClass, predicateBuilder, cursor, pageSize, null);
+    }
+
+    /**
+     * Retrieves the page of entities following the given cursor, loading the associations of a
+     * named entity graph in the same statement.
+     *
+     * @param entityClass      the entity type to query
+     * @param predicateBuilder builds the WHERE clause for a query root
+     * @param cursor           the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize         the maximum number of entities to return
+     * @param entityGraph      the name of the fetch graph to apply, or null for none
+     * @param <T>              the entity type
+     * @return the page of entities and the cursor of the next page
+     */
+    public <T extends BaseEntity> CursorPage<T> findSlice(Class<T> entityClass, CriteriaPredicateBuilder<T> predicateBuilder,
+                                                          String cursor, int pageSize, String entityGraph) {
+        KeysetCursor after = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+        Path<LocalDateTime> updatedAt = root.get("updatedAt");
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>(predicateBuilder.build(criteriaBuilder, root));
+        if (after != null) {
+            // (updatedAt, id) < (:updatedAt, :id), with a leading range bound the index can seek on
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(updatedAt, after.updatedAt()));
+            predicates.add(criteriaBuilder.or(
+                    criteriaBuilder.lessThan(updatedAt, after.updatedAt()),
+                    criteriaBuilder.lessThan(id, after.id())));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(criteriaBuilder.desc(updatedAt), criteriaBuilder.desc(id));
+
+        // Fetch one extra row to learn whether another page follows
+        List<T> content = withEntityGraph(entityManager.createQuery(query), entityGraph)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        if (content.size() <= pageSize) {
+            return new CursorPage<>(content, null);
+        }
+
+        content = content.subList(0, pageSize);
+        T last = content.get(pageSize - 1);
+        Long lastId = (Long) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(last);
+        return new CursorPage<>(content, new KeysetCursor(last.getUpdatedAt(), lastId).encode());
+    }
+
+    private <T> TypedQuery<T> withEntityGraph(TypedQuery<T> query, String entityGraph) {
+        if (entityGraph != null) {
+            query.setHint(HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(entityGraph));
+        }
+        return query;
+    }
+}
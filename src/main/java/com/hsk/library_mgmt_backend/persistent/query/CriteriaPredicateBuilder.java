@@ -0,0 +1,22 @@
+package com.hsk.library_mgmt_backend.persistent.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.List;
+
+/**
+ * Builds the WHERE clause of a Criteria query against a given root.
+ * <p>
+ * The builder is invoked once per query root so the same predicate tree can be
+ * applied to both the page query and its projected count query.
+ * </p>
+ *
+ * @param <T> the entity type of the query root
+ */
+@FunctionalInterface
+public interface CriteriaPredicateBuilder<T> {
+
+    List<Predicate> build(CriteriaBuilder criteriaBuilder, Root<T> root);
+}
@@ -0,0 +1,25 @@
+package com.hsk.library_mgmt_backend.persistent.query;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of results fetched by keyset pagination.
+ *
+ * @param content    the rows of the page
+ * @param nextCursor the cursor for the following page, or null if this is the last page
+ * @param <T>        the row type
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    /**
+     * Converts the rows of this page while keeping its cursor.
+     *
+     * @param converter the conversion applied to the whole row list
+     * @param <R>       the converted row type
+     * @return the converted page
+     */
+    public <R> CursorPage<R> map(Function<List<T>, List<R>> converter) {
+        return new CursorPage<>(converter.apply(content), nextCursor);
+    }
+}
@@ -0,0 +1,51 @@
+package com.hsk.library_mgmt_backend.persistent.query;
+
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, ordered by {@code updatedAt DESC, id DESC}.
+ * <p>
+ * Clients receive it as an opaque URL-safe token and pass it back unchanged to fetch the next page.
+ * </p>
+ *
+ * @param updatedAt the last modification time of the last row
+ * @param id        the ID of the last row
+ */
+public record KeysetCursor(LocalDateTime updatedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes this cursor into an opaque token.
+     *
+     * @return the URL-safe Base64 token
+     */
+    public String encode() {
+        String raw = updatedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token
+     * @return the decoded cursor
+     * @throws ValidationException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
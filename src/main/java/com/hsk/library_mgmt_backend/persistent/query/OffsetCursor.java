@@ -0,0 +1,66 @@
+package com.hsk.library_mgmt_backend.persistent.query;
+
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of the next row of a ranked result list, for searches ordered by relevance, which offers no
+ * column to seek on.
+ * <p>
+ * Clients receive it as an opaque URL-safe token and pass it back unchanged to fetch the next page.
+ * </p>
+ *
+ * @param offset the number of rows before the next page
+ */
+public record OffsetCursor(long offset) {
+
+    /**
+     * Encodes this cursor into an opaque token.
+     *
+     * @return the URL-safe Base64 token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the opaque cursor token, or null/empty for the first page
+     * @return the offset of the page the token points to
+     * @throws ValidationException if the token is malformed
+     */
+    public static long offsetOf(String token) {
+        if (token == null || token.isEmpty()) {
+            return 0;
+        }
+        try {
+            long offset = Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return offset;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Builds the page from the rows fetched at an offset, one more than the page size.
+     *
+     * @param rows     up to {@code pageSize + 1} rows starting at {@code offset}
+     * @param offset   the offset the rows were fetched from
+     * @param pageSize the number of rows per page
+     * @param <T>      the row type
+     * @return the page, with a cursor if the extra row shows that another page follows
+     */
+    public static <T> CursorPage<T> page(List<T> rows, long offset, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        return new CursorPage<>(rows.subList(0, pageSize), new OffsetCursor(offset + pageSize).encode());
+    }
+}
@@ -1,15 +1,119 @@
 package com.hsk.library_mgmt_backend.persistent.repository;
 
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
 import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.projection.GenreCount;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     @Query("select i from Book i where i.isbn = :isbn")
     Book findByIsbn(String isbn);
 
+    /**
+     * Returns which of the ISBNs are already taken, in a single query.
+     */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
     @Query("SELECT COUNT(b) FROM Book b")
     long countTotalBooks();
+
+    /**
+     * Takes one copy of the book if any is left, in a single conditional UPDATE. The version and the
+     * {@code updatedAt}/{@code updatedBy} audit columns are set as the auditing listener would.
+     *
+     * @return 1 if a copy was taken, 0 if the book is out of stock or does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Book b set b.copiesAvailable = b.copiesAvailable - 1, b.version = b.version + 1,
+                b.updatedAt = :now, b.updatedBy = :updatedBy
+            where b.id = :id and b.copiesAvailable > 0
+            """)
+    int decrementCopiesAvailable(@Param("id") Long id, @Param("now") LocalDateTime now,
+                                 @Param("updatedBy") String updatedBy);
+
+    /**
+     * Puts one copy of the book back, in a single UPDATE, setting the version and audit columns the same way.
+     *
+     * @return 1 if the book exists, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Book b set b.copiesAvailable = b.copiesAvailable + 1, b.version = b.version + 1,
+                b.updatedAt = :now, b.updatedBy = :updatedBy
+            where b.id = :id
+            """)
+    int incrementCopiesAvailable(@Param("id") Long id, @Param("now") LocalDateTime now,
+                                 @Param("updatedBy") String updatedBy);
+
+    @Query(value = """
+            SELECT b.* FROM book b
+            WHERE (b.search_vector @@ websearch_to_tsquery('simple', :query)
+                   OR lower(b.title) % lower(:query)
+                   OR lower(b.author) % lower(:query))
+              AND (:genre = '' OR lower(b.genre) = :genre)
+            ORDER BY ts_rank(b.search_vector, websearch_to_tsquery('simple', :query)) DESC,
+                     greatest(similarity(lower(b.title), lower(:query)), similarity(lower(b.author), lower(:query))) DESC,
+                     b.id DESC
+            """,
+            countQuery = """
+                    SELECT count(*) FROM book b
+                    WHERE (b.search_vector @@ websearch_to_tsquery('simple', :query)
+                           OR lower(b.title) % lower(:query)
+                           OR lower(b.author) % lower(:query))
+                      AND (:genre = '' OR lower(b.genre) = :genre)
+                    """,
+            nativeQuery = true)
+    Page<Book> searchFullText(@Param("query") String query, @Param("genre") String genre, Pageable pageable);
+
+    /**
+     * The full-text matches in the order of {@link #searchFullText}, from an offset and without a count.
+     */
+    @Query(value = """
+            SELECT b.* FROM book b
+            WHERE (b.search_vector @@ websearch_to_tsquery('simple', :query)
+                   OR lower(b.title) % lower(:query)
+                   OR lower(b.author) % lower(:query))
+              AND (:genre = '' OR lower(b.genre) = :genre)
+            ORDER BY ts_rank(b.search_vector, websearch_to_tsquery('simple', :query)) DESC,
+                     greatest(similarity(lower(b.title), lower(:query)), similarity(lower(b.author), lower(:query))) DESC,
+                     b.id DESC
+            LIMIT :limit OFFSET :offset
+            """,
+            nativeQuery = true)
+    List<Book> findFullTextSlice(@Param("query") String query, @Param("genre") String genre,
+                                 @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT lower(b.genre) AS genre, count(*) AS count FROM book b
+            WHERE (b.search_vector @@ websearch_to_tsquery('simple', :query)
+                   OR lower(b.title) % lower(:query)
+                   OR lower(b.author) % lower(:query))
+              AND b.genre IS NOT NULL
+            GROUP BY lower(b.genre)
+            ORDER BY count(*) DESC, lower(b.genre)
+            """,
+            nativeQuery = true)
+    List<GenreCount> countFullTextByGenre(@Param("query") String query);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.hsk.library_mgmt_backend.dto.BookSearchDocument(b.id, b.title, b.author, b.isbn, b.genre) from Book b")
+    Stream<BookSearchDocument> streamSearchDocuments();
 }
@@ -1,15 +1,23 @@
 package com.hsk.library_mgmt_backend.persistent.repository;
 
 import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.projection.AdminDashboardCounts;
+import com.hsk.library_mgmt_backend.persistent.projection.BookLoanCount;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BookTransactionRepository extends JpaRepository<BookTransaction, Long> {
@@ -24,6 +32,14 @@ public interface BookTransactionRepository extends JpaRepository<BookTransaction
     @Query("delete from BookTransaction i where i.book.id = :bookId")
     void deleteByBookId(Long bookId);
 
+    @Modifying
+    @Query(value = "DELETE FROM book_transaction_archive WHERE member_fk = :memberId", nativeQuery = true)
+    void deleteArchivedByMemberId(@Param("memberId") Long memberId);
+
+    @Modifying
+    @Query(value = "DELETE FROM book_transaction_archive WHERE book_fk = :bookId", nativeQuery = true)
+    void deleteArchivedByBookId(@Param("bookId") Long bookId);
+
     @Query("SELECT COUNT(bt) FROM BookTransaction bt WHERE bt.returnDate IS NULL AND bt.status = 'APPROVED'")
     long countBorrowedBooks();
 
@@ -33,6 +49,18 @@ public interface BookTransactionRepository extends JpaRepository<BookTransaction
     @Query("SELECT COUNT(br) FROM BookTransaction br WHERE br.status = 'REQUESTED'")
     long countRequestedBooks();
 
+    @Query(value = """
+            SELECT (SELECT count(*) FROM book) AS "totalBooks",
+                   count(*) FILTER (WHERE bt.return_date IS NULL AND bt.status = 'APPROVED') AS "totalBorrowedBooks",
+                   count(*) FILTER (WHERE bt.due_date < CURRENT_DATE AND bt.return_date IS NULL
+                                      AND bt.status <> 'CANCELLED') AS "totalOverdueBooks",
+                   count(*) FILTER (WHERE bt.status = 'REQUESTED') AS "totalRequestedBooks",
+                   (SELECT count(*) FROM member) AS "totalMembers"
+            FROM book_transaction bt
+            """,
+            nativeQuery = true)
+    AdminDashboardCounts countAdminDashboard();
+
     @Query("SELECT COUNT(bt) FROM BookTransaction bt WHERE bt.returnDate IS NULL AND bt.member.id = :memberId AND bt.status = 'APPROVED'")
     long countBorrowedBooksWithMember(@Param("memberId") Long memberId);
 
@@ -42,12 +70,36 @@ public interface BookTransactionRepository extends JpaRepository<BookTransaction
     @Query("SELECT COUNT(bt) FROM BookTransaction bt WHERE bt.status = 'REQUESTED' AND bt.member.id = :memberId")
     long countRequestedBooksWithMember(@Param("memberId") Long memberId);
 
-    @Query("SELECT COUNT(bt) FROM BookTransaction bt WHERE bt.member.id = :memberId")
+    /**
+     * Counts the member's transactions, including the closed ones moved to the archive.
+     */
+    @Query(value = """
+            SELECT (SELECT count(*) FROM book_transaction WHERE member_fk = :memberId)
+                 + (SELECT count(*) FROM book_transaction_archive WHERE member_fk = :memberId)
+            """,
+            nativeQuery = true)
     long countBooksWithMember(@Param("memberId") Long memberId);
 
-    @Query("SELECT bt FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.member.id = :memberId AND bt.status != 'CANCELLED'")
+    /**
+     * Counts the loans of every book, including the closed ones moved to the archive.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+            SELECT book_fk AS "bookId", count(*) AS "loans"
+            FROM book_transaction_history
+            WHERE book_fk IS NOT NULL
+            GROUP BY book_fk
+            """,
+            nativeQuery = true)
+    Stream<BookLoanCount> streamLoanCounts();
+
+    @EntityGraph(BookTransaction.WITH_BOOK_AND_MEMBER)
+    @Query(value = "SELECT bt FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.member.id = :memberId AND bt.status != 'CANCELLED' ORDER BY bt.dueDate, bt.id",
+            countQuery = "SELECT COUNT(bt.id) FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.member.id = :memberId AND bt.status != 'CANCELLED'")
     Page<BookTransaction> findOverdueBooksByMember(@Param("memberId") Long memberId, Pageable pageable);
 
-    @Query("SELECT bt FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.status != 'CANCELLED'")
+    @EntityGraph(BookTransaction.WITH_BOOK_AND_MEMBER)
+    @Query(value = "SELECT bt FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.status != 'CANCELLED' ORDER BY bt.dueDate, bt.id",
+            countQuery = "SELECT COUNT(bt.id) FROM BookTransaction bt WHERE bt.dueDate < CURRENT_DATE AND bt.returnDate IS NULL AND bt.status != 'CANCELLED'")
     Page<BookTransaction> findOverdueBooksForAdmin(Pageable pageable);
 }
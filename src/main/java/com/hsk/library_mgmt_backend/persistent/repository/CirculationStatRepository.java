@@ -0,0 +1,27 @@
+package com.hsk.library_mgmt_backend.persistent.repository;
+
+import com.hsk.library_mgmt_backend.persistent.entity.CirculationStat;
+import com.hsk.library_mgmt_backend.persistent.projection.CounterTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CirculationStatRepository extends JpaRepository<CirculationStat, CirculationStat.Key> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO circulation_stats (counter, stripe, counter_value)
+            VALUES (:counter, :stripe, :delta)
+            ON CONFLICT (counter, stripe) DO UPDATE SET counter_value = circulation_stats.counter_value + EXCLUDED.counter_value
+            """,
+            nativeQuery = true)
+    void addToStripe(@Param("counter") String counter, @Param("stripe") short stripe, @Param("delta") long delta);
+
+    @Query("SELECT s.id.counter AS counter, SUM(s.counterValue) AS total FROM CirculationStat s GROUP BY s.id.counter")
+    List<CounterTotal> sumByCounter();
+}
@@ -0,0 +1,92 @@
+package com.hsk.library_mgmt_backend.persistent.repository;
+
+import com.hsk.library_mgmt_backend.persistent.entity.MemberCirculationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MemberCirculationSummaryRepository extends JpaRepository<MemberCirculationSummary, Long> {
+
+    /**
+     * Creates the member's summary from their book transactions unless it already exists.
+     * Pending changes are flushed first so the counts include them. Archived transactions are all
+     * closed, so they only add to the total.
+     *
+     * @return 1 if the summary was created, 0 if it already existed
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO member_circulation_summary (member_id, total_books, requested_books, borrowed_books)
+            SELECT :memberId,
+                   count(*) + (SELECT count(*) FROM book_transaction_archive bta WHERE bta.member_fk = :memberId),
+                   count(*) FILTER (WHERE bt.status = 'REQUESTED'),
+                   count(*) FILTER (WHERE bt.return_date IS NULL AND bt.status = 'APPROVED')
+            FROM book_transaction bt
+            WHERE bt.member_fk = :memberId
+            ON CONFLICT (member_id) DO NOTHING
+            """,
+            nativeQuery = true)
+    int seedIfMissing(@Param("memberId") Long memberId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE member_circulation_summary
+            SET total_books     = total_books + :totalDelta,
+                requested_books = requested_books + :requestedDelta,
+                borrowed_books  = borrowed_books + :borrowedDelta
+            WHERE member_id = :memberId
+            """,
+            nativeQuery = true)
+    void addDeltas(@Param("memberId") Long memberId,
+                   @Param("totalDelta") long totalDelta,
+                   @Param("requestedDelta") long requestedDelta,
+                   @Param("borrowedDelta") long borrowedDelta);
+
+    /**
+     * Returns the members with a transaction for the book, archived ones included.
+     */
+    @Query(value = """
+            SELECT bt.member_fk FROM book_transaction bt WHERE bt.book_fk = :bookId
+            UNION
+            SELECT bta.member_fk FROM book_transaction_archive bta WHERE bta.book_fk = :bookId
+            """,
+            nativeQuery = true)
+    List<Long> findMemberIdsOfBook(@Param("bookId") Long bookId);
+
+    @Query("SELECT s.memberId FROM MemberCirculationSummary s WHERE s.memberId > :after ORDER BY s.memberId")
+    List<Long> findMemberIdsAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Recounts the summaries of the members from their book transactions.
+     *
+     * @return the number of summaries that were wrong and have been corrected
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE member_circulation_summary s
+            SET total_books     = c.total_books,
+                requested_books = c.requested_books,
+                borrowed_books  = c.borrowed_books
+            FROM (SELECT m.member_id,
+                         count(bt.id) + (SELECT count(*) FROM book_transaction_archive bta
+                                         WHERE bta.member_fk = m.member_id) AS total_books,
+                         count(bt.id) FILTER (WHERE bt.status = 'REQUESTED') AS requested_books,
+                         count(bt.id) FILTER (WHERE bt.return_date IS NULL AND bt.status = 'APPROVED') AS borrowed_books
+                  FROM member_circulation_summary m
+                  LEFT JOIN book_transaction bt ON bt.member_fk = m.member_id
+                  WHERE m.member_id IN (:memberIds)
+                  GROUP BY m.member_id) c
+            WHERE s.member_id = c.member_id
+              AND (s.total_books, s.requested_books, s.borrowed_books)
+                  IS DISTINCT FROM (c.total_books, c.requested_books, c.borrowed_books)
+            """,
+            nativeQuery = true)
+    int recount(@Param("memberIds") Collection<Long> memberIds);
+}
@@ -0,0 +1,35 @@
+package com.hsk.library_mgmt_backend.response;
+
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.service.importing.BookImportFormat;
+import com.hsk.library_mgmt_backend.service.importing.BookImportJob;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a streaming catalog import.
+ *
+ * @param jobId       the ID to poll the progress with
+ * @param format      the format of the input
+ * @param status      whether the import is queued, running, completed or failed
+ * @param recordsRead the number of records read so far
+ * @param imported    the number of books added so far
+ * @param rejected    the number of records rejected so far
+ * @param failures    the first rejected records, by position in the input starting at 0
+ * @param createdAt   when the input was received
+ * @param finishedAt  when the import completed or failed
+ * @param error       why the import stopped, if it failed
+ */
+public record BookImportJobResponse(String jobId,
+                                    BookImportFormat format,
+                                    BookImportJob.Status status,
+                                    long recordsRead,
+                                    long imported,
+                                    long rejected,
+                                    List<BulkItemFailure> failures,
+                                    LocalDateTime createdAt,
+                                    LocalDateTime finishedAt,
+                                    String error) implements Serializable {
+}
@@ -0,0 +1,13 @@
+package com.hsk.library_mgmt_backend.response;
+
+/**
+ * A typeahead completion for the book search box.
+ *
+ * @param text  the completed title or author as stored on the book
+ * @param field the book field the completion comes from: {@code title} or {@code author}
+ */
+public record BookSuggestionResponse(
+        String text,
+        String field
+) {
+}
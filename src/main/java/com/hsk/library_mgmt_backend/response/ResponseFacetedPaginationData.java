@@ -0,0 +1,19 @@
+package com.hsk.library_mgmt_backend.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.util.Map;
+
+/**
+ * A paginated response carrying facet counts for the whole result, e.g. genre counts.
+ */
+@Getter
+@Setter
+public class ResponseFacetedPaginationData<T> extends ResponsePaginationData<T> {
+    @Serial
+    private static final long serialVersionUID = -4519806384210541378L;
+
+    private Map<String, Long> facets;
+}
@@ -22,5 +22,7 @@ public class ResponsePaginationData<T> implements Serializable {
     private Long totalElements;
 
     private int pageNumber;
+
+    private String nextCursor;
 }
 
@@ -2,6 +2,8 @@ package com.hsk.library_mgmt_backend.response;
 
 import org.springframework.http.HttpStatus;
 
+import java.util.Map;
+
 public class ResponsePaginationUtil {
 
     public static <T> ResponsePaginationData<T> responsePaginationConverter(T object, Long totalElements, int totalPages, int pageNumber) {
@@ -16,4 +18,28 @@ public class ResponsePaginationUtil {
         return responsePaginationData;
     }
 
+    public static <T> ResponsePaginationData<T> responseCursorConverter(T object, String nextCursor) {
+
+        ResponsePaginationData<T> responsePaginationData = new ResponsePaginationData<>();
+        responsePaginationData.setData(object);
+        responsePaginationData.setNextCursor(nextCursor);
+        responsePaginationData.setStatus(HttpStatus.OK.value());
+        responsePaginationData.setResult(true);
+        return responsePaginationData;
+    }
+
+    public static <T> ResponseFacetedPaginationData<T> withFacets(ResponsePaginationData<T> page, Map<String, Long> facets) {
+
+        ResponseFacetedPaginationData<T> responseFacetedPaginationData = new ResponseFacetedPaginationData<>();
+        responseFacetedPaginationData.setData(page.getData());
+        responseFacetedPaginationData.setTotalElements(page.getTotalElements());
+        responseFacetedPaginationData.setTotalPages(page.getTotalPages());
+        responseFacetedPaginationData.setPageNumber(page.getPageNumber());
+        responseFacetedPaginationData.setNextCursor(page.getNextCursor());
+        responseFacetedPaginationData.setStatus(page.getStatus());
+        responseFacetedPaginationData.setResult(page.getResult());
+        responseFacetedPaginationData.setFacets(facets);
+        return responseFacetedPaginationData;
+    }
+
 }
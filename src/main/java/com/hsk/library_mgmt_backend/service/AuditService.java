@@ -0,0 +1,12 @@
+package com.hsk.library_mgmt_backend.service;
+
+import com.hsk.library_mgmt_backend.dto.AuditEntryDto;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+
+import java.time.Instant;
+
+public interface AuditService {
+    CursorPage<AuditEntryDto> getEntityHistory(String entity, Long id, String cursor, int pageSize);
+
+    CursorPage<AuditEntryDto> getChanges(String entity, Instant from, Instant to, String cursor, int pageSize);
+}
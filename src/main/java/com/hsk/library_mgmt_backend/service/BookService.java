@@ -2,12 +2,16 @@ package com.hsk.library_mgmt_backend.service;
 
 
 import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
 import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BookService {
     Book addBook(Book book);
@@ -20,5 +24,11 @@ public interface BookService {
 
     Page<BookDto> getAllBook(Pageable pageable, String query, String genre);
 
-    List<Book> addBookBulky(List<Book> entity);
+    CursorPage<BookDto> getAllBookByCursor(String cursor, int pageSize, String query, String genre);
+
+    Map<String, Long> getBookGenreFacets(String query);
+
+    List<BookSuggestionResponse> suggestBooks(String prefix, int limit);
+
+    BulkImportResult<Book> addBookBulky(List<Book> entity);
 }
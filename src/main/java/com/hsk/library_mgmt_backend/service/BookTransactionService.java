@@ -3,6 +3,7 @@ package com.hsk.library_mgmt_backend.service;
 
 import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
 import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionRequest;
 import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionUpdateRequest;
 import org.springframework.data.domain.Page;
@@ -17,7 +18,9 @@ public interface BookTransactionService {
 
     BookTransaction getBookTransactionById(Long id);
 
-    Page<BookTransactionDto> getAllBookTransaction(Pageable pageable,String query, String status, Long memberId);
+    Page<BookTransactionDto> getAllBookTransaction(Pageable pageable,String query, String status, Long memberId, boolean includeArchived);
+
+    CursorPage<BookTransactionDto> getAllBookTransactionByCursor(String cursor, int pageSize, String query, String status, Long memberId, boolean includeArchived);
 
     Page<BookTransactionDto> getAllOverdueBookTransactions(Pageable pageable, Long memberId);
 }
@@ -6,5 +6,10 @@ import com.hsk.library_mgmt_backend.response.MemberDashboardCountResponse;
 public interface DashboardService {
    AdminDashboardCountResponse getAdminDashboardCount();
 
+    /**
+     * Like {@link #getAdminDashboardCount()}, but never served from a cached entry computed before the last change.
+     */
+    AdminDashboardCountResponse refreshAdminDashboardCount();
+
     MemberDashboardCountResponse getMemberDashboardCount(Long memberId);
 }
@@ -3,6 +3,7 @@ package com.hsk.library_mgmt_backend.service;
 
 import com.hsk.library_mgmt_backend.dto.MemberDto;
 import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.web.v1.payload.member.MemberRequest;
 import org.springframework.data.domain.Page;
@@ -20,4 +21,6 @@ public interface MemberService {
     Member getMemberById(Long id);
 
     Page<MemberDto> getAllMember(Pageable pageable, String query);
+
+    CursorPage<MemberDto> getAllMemberByCursor(String cursor, int pageSize, String query);
 }
@@ -0,0 +1,17 @@
+package com.hsk.library_mgmt_backend.service.audit;
+
+/**
+ * How the Envers audit rows ({@code revinfo} and {@code *_aud}) are written, selected with {@code library.audit.mode}.
+ */
+public enum AuditMode {
+    /**
+     * Envers inserts the revision and the audit rows in the transaction that changes the entities.
+     */
+    ENVERS,
+
+    /**
+     * The changes are captured into the {@code audit_outbox} table in the changing transaction, as one row,
+     * and copied to the audit tables in batches by {@link AuditOutboxWriter}.
+     */
+    OUTBOX
+}
@@ -0,0 +1,228 @@
+package com.hsk.library_mgmt_backend.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsk.library_mgmt_backend.persistent.entity.base.RevisionAuditor;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.internal.ForeignKeys;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.envers.Audited;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.Type;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Captures the changes of {@link Audited} entities into the {@code audit_outbox} table, in place of Envers,
+ * when {@code library.audit.mode} is {@link AuditMode#OUTBOX}.
+ * <p>
+ * Inserts, updates and deletes flushed by a session are collected as the audit rows Envers would have
+ * written, one per entity and revision type ({@code 0} add, {@code 1} modify, {@code 2} delete) like
+ * Envers merges them. Just before the transaction commits, after the last flush, they are written as a
+ * single outbox row together with the revision user and timestamp, so the changing transaction pays one
+ * insert whatever the number of entities. {@link AuditOutboxWriter} copies them to the audit tables.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AuditOutboxRecorder implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String AUDIT_TABLE_SUFFIX = "_aud";
+    private static final short ADD = 0;
+    private static final short MOD = 1;
+    private static final short DEL = 2;
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final AuditMode mode;
+    private final Set<String> auditTables = new HashSet<>();
+    private final Map<SharedSessionContractImplementor, PendingRevision> pendingRevisions = new ConcurrentHashMap<>();
+
+    public AuditOutboxRecorder(EntityManagerFactory entityManagerFactory,
+                               ObjectMapper objectMapper,
+                               @Value("${library.audit.mode:ENVERS}") AuditMode mode) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+    }
+
+    @PostConstruct
+    public void register() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (isAudited(persister)) {
+                auditTables.add(auditTable(persister));
+            }
+        });
+        if (mode == AuditMode.OUTBOX) {
+            EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_INSERT, this);
+            registry.appendListeners(EventType.POST_UPDATE, this);
+            registry.appendListeners(EventType.POST_DELETE, this);
+            log.info("Audit rows of {} are written through the audit outbox", auditTables);
+        }
+    }
+
+    /**
+     * @param table a table name read back from the outbox
+     * @return whether it is the audit table of an audited entity
+     */
+    public boolean isAuditTable(String table) {
+        return auditTables.contains(table);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (isAudited(event.getPersister())) {
+            record(event.getSession(), event.getPersister(), event.getId(), ADD, event.getState());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (isAudited(event.getPersister())) {
+            record(event.getSession(), event.getPersister(), event.getId(), MOD, event.getState());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (isAudited(event.getPersister())) {
+            // Like Envers by default, a deletion only records the id
+            record(event.getSession(), event.getPersister(), event.getId(), DEL, null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, EntityPersister persister, Object id, short revisionType, Object[] state) {
+        PendingRevision pending = pendingRevisions.get(session);
+        if (pending == null) {
+            pending = new PendingRevision();
+            pendingRevisions.put(session, pending);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) pending);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) pending);
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put(((AbstractEntityPersister) persister).getIdentifierColumnNames()[0], id);
+        row.put("revtype", revisionType);
+        if (state != null) {
+            addColumns(row, (AbstractEntityPersister) persister, state, session);
+        }
+        pending.add(auditTable(persister), id, revisionType, row);
+    }
+
+    private void addColumns(Map<String, Object> row, AbstractEntityPersister persister, Object[] state,
+                            SharedSessionContractImplementor session) {
+        Type[] types = persister.getPropertyTypes();
+        for (int i = 0; i < types.length; i++) {
+            String[] columns = persister.getPropertyColumnNames(i);
+            if (types[i].isCollectionType() || columns.length != 1) {
+                continue;
+            }
+            Object value = state[i];
+            if (value != null && types[i] instanceof EntityType entityType) {
+                value = ForeignKeys.getEntityIdentifierIfNotUnsaved(entityType.getAssociatedEntityName(), value, session);
+            } else if (value instanceof Enum<?> constant) {
+                value = constant.name();
+            } else if (value instanceof Temporal) {
+                value = value.toString();
+            }
+            row.put(columns[0], value);
+        }
+    }
+
+    private static boolean isAudited(EntityPersister persister) {
+        return persister.getMappedClass().isAnnotationPresent(Audited.class);
+    }
+
+    private static String auditTable(EntityPersister persister) {
+        return ((AbstractEntityPersister) persister).getTableName() + AUDIT_TABLE_SUFFIX;
+    }
+
+    /**
+     * The audit rows of one transaction, keyed by table and entity id so an entity changed several times
+     * in the transaction keeps one row: an addition followed by changes stays an addition with the final
+     * state, and an entity added then deleted leaves no row.
+     */
+    private final class PendingRevision implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        private final Map<List<Object>, Map<String, Object>> rows = new LinkedHashMap<>();
+
+        void add(String table, Object id, short revisionType, Map<String, Object> row) {
+            List<Object> key = List.of(table, id);
+            Map<String, Object> previous = rows.get(key);
+            if (previous != null && (short) previous.get("revtype") == ADD) {
+                if (revisionType == DEL) {
+                    rows.remove(key);
+                    return;
+                }
+                row.put("revtype", ADD);
+            }
+            rows.put(key, row);
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            pendingRevisions.remove(session);
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<Map<String, Object>> changes = new ArrayList<>(rows.size());
+            rows.forEach((key, row) -> changes.add(Map.of("table", key.get(0), "row", row)));
+            RevisionAuditor auditor = RevisionAuditor.current();
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(changes);
+            } catch (JsonProcessingException e) {
+                throw new HibernateException("Could not serialize the audit changes", e);
+            }
+            session.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO audit_outbox (revtstmp, username, user_type, changes) VALUES (?, ?, ?, ?::jsonb)")) {
+                    statement.setLong(1, System.currentTimeMillis());
+                    statement.setString(2, auditor.username());
+                    statement.setString(3, auditor.userType());
+                    statement.setString(4, json);
+                    statement.executeUpdate();
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            // Rolled back transactions never reach the before-completion step
+            pendingRevisions.remove(session);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.hsk.library_mgmt_backend.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies the revisions captured in the {@code audit_outbox} table to {@code revinfo} and the audit tables.
+ * <p>
+ * Every {@code library.audit.outbox.interval} the outbox is drained in transactions of up to
+ * {@code library.audit.outbox.batch-size} revisions: the {@code revinfo} rows are inserted in one JDBC
+ * batch, the audit rows in one batch per table, and the outbox rows deleted, so each revision is written
+ * exactly once. The drain is only scheduled in {@link AuditMode#OUTBOX} mode; in {@link AuditMode#ENVERS}
+ * mode the outbox is drained once, {@code library.audit.outbox.interval} after startup, so switching back
+ * still copies what was left in it.
+ * </p>
+ * <p>
+ * One node drains at a time: each batch takes a transaction-level advisory lock and a node that does not
+ * get it leaves the outbox to the one that has it. Revision numbers are taken from {@code revinfo_seq} by
+ * the batch itself rather than from the node's cached block, so they follow the outbox order across nodes.
+ * For any one entity that is the order its changes were committed, since a change waits for the row lock of
+ * the previous one. The revision timestamp is the commit time, not the copy time.
+ * </p>
+ * <p>
+ * When a batch fails its revisions are retried one at a time. A revision that still fails for a reason other
+ * than a transient database error is quarantined: it stays in the outbox with {@code quarantined_at} and
+ * {@code last_error} set and the writer moves on to the next ones. Clearing {@code quarantined_at} queues it
+ * again, under a new revision number. {@code library.audit.outbox.quarantined} is the number of quarantined
+ * revisions.
+ * </p>
+ * <p>
+ * {@code library.audit.outbox.lag} is the age in seconds of the oldest revision not yet copied, as of
+ * the last drain, whether it succeeded or not. On shutdown in {@link AuditMode#OUTBOX} mode the outbox is
+ * drained for up to
+ * {@code library.audit.outbox.shutdown-timeout}; anything still left stays in the table and is copied after
+ * the next start.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AuditOutboxWriter implements SchedulingConfigurer {
+
+    private static final String REVISION_SEQUENCE = "revinfo_seq";
+
+    private final AuditOutboxRecorder auditOutboxRecorder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditMode mode;
+    private final int batchSize;
+    private final Duration interval;
+    private final Duration shutdownTimeout;
+    private final AtomicLong oldestPendingTimestamp = new AtomicLong();
+    private final AtomicLong quarantinedCount = new AtomicLong();
+    private final Counter writtenRevisions;
+    private final Counter quarantinedRevisions;
+
+    public AuditOutboxWriter(AuditOutboxRecorder auditOutboxRecorder,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${library.audit.mode:ENVERS}") AuditMode mode,
+                             @Value("${library.audit.outbox.batch-size:200}") int batchSize,
+                             @Value("${library.audit.outbox.interval:PT1S}") Duration interval,
+                             @Value("${library.audit.outbox.shutdown-timeout:PT30S}") Duration shutdownTimeout) {
+        this.auditOutboxRecorder = auditOutboxRecorder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder("library.audit.outbox.lag", this, AuditOutboxWriter::lagSeconds)
+                .description("Age of the oldest audit revision waiting in the outbox")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("library.audit.outbox.quarantined", quarantinedCount, AtomicLong::get)
+                .description("Audit revisions set aside in the outbox because they could not be copied")
+                .register(meterRegistry);
+        this.writtenRevisions = Counter.builder("library.audit.outbox.written")
+                .description("Audit revisions copied from the outbox")
+                .register(meterRegistry);
+        this.quarantinedRevisions = Counter.builder("library.audit.outbox.quarantined.total")
+                .description("Audit revisions quarantined by the outbox writer")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (mode == AuditMode.OUTBOX) {
+            taskRegistrar.addFixedDelayTask(this::drain, interval);
+        } else {
+            // Copies what an earlier run in OUTBOX mode left behind
+            taskRegistrar.addOneTimeTask(this::drain, interval);
+        }
+    }
+
+    public void drain() {
+        drain(Long.MAX_VALUE);
+    }
+
+    @PreDestroy
+    public void flush() {
+        if (mode != AuditMode.OUTBOX) {
+            return;
+        }
+        drain(shutdownTimeout.toNanos());
+        if (oldestPendingTimestamp.get() != 0) {
+            log.warn("Audit outbox not drained within {}; the remaining revisions are copied after the next start",
+                    shutdownTimeout);
+        }
+    }
+
+    private void drain(long budgetNanos) {
+        long start = System.nanoTime();
+        try {
+            int processed;
+            do {
+                processed = writeBatch();
+            } while (processed == batchSize && System.nanoTime() - start < budgetNanos);
+        } catch (RuntimeException e) {
+            // The gauges are still refreshed, without hiding the failure if the database is what failed
+            try {
+                readBacklog();
+            } catch (RuntimeException backlogFailure) {
+                e.addSuppressed(backlogFailure);
+            }
+            throw e;
+        }
+        readBacklog();
+    }
+
+    private void readBacklog() {
+        List<Long> oldest = jdbcTemplate.queryForList(
+                "SELECT revtstmp FROM audit_outbox WHERE quarantined_at IS NULL ORDER BY id LIMIT 1", Long.class);
+        oldestPendingTimestamp.set(oldest.isEmpty() ? 0 : oldest.get(0));
+        quarantinedCount.set(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM audit_outbox WHERE quarantined_at IS NOT NULL", Long.class));
+    }
+
+    /**
+     * Copies the next batch, falling back to one revision at a time when it fails.
+     *
+     * @return the number of revisions copied or quarantined
+     */
+    private int writeBatch() {
+        try {
+            return transactionTemplate.execute(status -> copy(claim(
+                    "WHERE quarantined_at IS NULL ORDER BY id LIMIT ?", batchSize)));
+        } catch (OutboxCopyException e) {
+            if (isTransient(e.getCause())) {
+                throw e;
+            }
+            log.warn("Audit outbox batch of {} revisions failed, copying them one at a time: {}",
+                    e.ids.size(), e.getCause().toString());
+            for (Long id : e.ids) {
+                writeOne(id);
+            }
+            return e.ids.size();
+        }
+    }
+
+    private void writeOne(Long id) {
+        try {
+            transactionTemplate.execute(status -> copy(claim("WHERE id = ? AND quarantined_at IS NULL", id)));
+        } catch (OutboxCopyException e) {
+            if (isTransient(e.getCause())) {
+                throw e;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE audit_outbox SET quarantined_at = LOCALTIMESTAMP, last_error = ? WHERE id = ?",
+                    e.getCause().toString(), id));
+            quarantinedRevisions.increment();
+            log.error("Audit outbox row {} could not be copied and is quarantined; clear its quarantined_at to copy it again",
+                    id, e.getCause());
+        }
+    }
+
+    /**
+     * Takes the drain lock and reads the outbox rows matching the clause.
+     *
+     * @return the rows, or none when another node holds the drain lock
+     */
+    private List<OutboxRevision> claim(String clause, Object argument) {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock('audit_outbox'::regclass::oid::bigint)", Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) {
+            return List.of();
+        }
+        return jdbcTemplate.query("SELECT id, revtstmp, username, user_type, changes FROM audit_outbox " + clause,
+                (resultSet, rowNum) -> new OutboxRevision(resultSet.getLong("id"), resultSet.getLong("revtstmp"),
+                        resultSet.getString("username"), resultSet.getString("user_type"), resultSet.getString("changes")),
+                argument);
+    }
+
+    private int copy(List<OutboxRevision> revisions) {
+        if (revisions.isEmpty()) {
+            return 0;
+        }
+        try {
+            write(revisions);
+        } catch (RuntimeException e) {
+            throw new OutboxCopyException(revisions.stream().map(OutboxRevision::id).toList(), e);
+        }
+        writtenRevisions.increment(revisions.size());
+        return revisions.size();
+    }
+
+    private void write(List<OutboxRevision> revisions) {
+        List<Long> revs = allocateRevisions(revisions.size());
+        List<Object[]> revInfos = new ArrayList<>(revisions.size());
+        for (int i = 0; i < revisions.size(); i++) {
+            OutboxRevision revision = revisions.get(i);
+            revInfos.add(new Object[]{revs.get(i), revision.revtstmp(), revision.username(), revision.userType()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO revinfo (rev, revtstmp, username, user_type) VALUES (?, ?, ?, ?)", revInfos);
+
+        Map<String, List<Object[]>> rowsByTable = new LinkedHashMap<>();
+        for (int i = 0; i < revisions.size(); i++) {
+            Long rev = revs.get(i);
+            for (JsonNode change : readChanges(revisions.get(i))) {
+                String table = change.get("table").asText();
+                if (!auditOutboxRecorder.isAuditTable(table)) {
+                    throw new IllegalStateException("Audit outbox row " + revisions.get(i).id() + " names unknown table " + table);
+                }
+                ObjectNode row = (ObjectNode) change.get("row");
+                row.put("rev", rev);
+                rowsByTable.computeIfAbsent(table, key -> new ArrayList<>()).add(new Object[]{row.toString()});
+            }
+        }
+        // The JSON keys are the column names; columns without a key are left null
+        rowsByTable.forEach((table, rows) -> jdbcTemplate.batchUpdate(
+                "INSERT INTO " + table + " SELECT * FROM jsonb_populate_record(NULL::" + table + ", ?::jsonb)", rows));
+
+        jdbcTemplate.batchUpdate("DELETE FROM audit_outbox WHERE id = ?",
+                revisions.stream().map(revision -> new Object[]{revision.id()}).toList());
+    }
+
+    /**
+     * Reserves revision numbers from the sequence in the pooled-lo blocks the entities use: a sequence value
+     * V stands for V .. V + increment - 1. Blocks reserved later are always higher, whichever node took them.
+     */
+    private List<Long> allocateRevisions(int count) {
+        Long increment = jdbcTemplate.queryForObject(
+                "SELECT increment_by FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                Long.class, REVISION_SEQUENCE);
+        long blocks = (count + increment - 1) / increment;
+        List<Long> blockStarts = jdbcTemplate.queryForList(
+                "SELECT nextval('" + REVISION_SEQUENCE + "') AS rev FROM generate_series(1, ?) ORDER BY rev", Long.class, blocks);
+        List<Long> revs = new ArrayList<>(count);
+        for (Long blockStart : blockStarts) {
+            for (long rev = blockStart; rev < blockStart + increment && revs.size() < count; rev++) {
+                revs.add(rev);
+            }
+        }
+        return revs;
+    }
+
+    private JsonNode readChanges(OutboxRevision revision) {
+        try {
+            return objectMapper.readTree(revision.changes());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Audit outbox row " + revision.id() + " is not valid JSON", e);
+        }
+    }
+
+    /**
+     * Failures the database may not repeat on the next attempt; they stop the drain instead of quarantining.
+     */
+    private static boolean isTransient(Throwable failure) {
+        return failure instanceof TransientDataAccessException
+                || failure instanceof RecoverableDataAccessException
+                || failure instanceof DataAccessResourceFailureException;
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingTimestamp.get();
+        return oldest == 0 ? 0 : Math.max(System.currentTimeMillis() - oldest, 0) / 1000.0;
+    }
+
+    private record OutboxRevision(long id, long revtstmp, String username, String userType, String changes) {
+    }
+
+    /**
+     * A batch that could not be copied, with the outbox ids it claimed.
+     */
+    private static final class OutboxCopyException extends RuntimeException {
+        private final transient List<Long> ids;
+
+        OutboxCopyException(List<Long> ids, RuntimeException cause) {
+            super(cause);
+            this.ids = ids;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.hsk.library_mgmt_backend.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the audit tables from growing forever by collapsing old history into one snapshot per entity.
+ * <p>
+ * On {@code library.audit.retention.cron}, when {@code library.audit.retention.enabled}, every revision
+ * recorded before {@code library.audit.retention.horizon} is reviewed. Revision numbers are taken in blocks
+ * per node and do not follow time, so revisions are selected by their {@code revtstmp}; the highest of them
+ * only bounds the scan. For each entity the latest of those rows is kept as its snapshot at the horizon; the older ones are exported as gzipped NDJSON under
+ * {@code library.audit.retention.archive-dir}{@code /<table>/<yyyy-MM>/}, one file per batch and month of the
+ * revision, then deleted. Secret columns ({@link AuditedEntity#getSecretColumns()}) are left out of the export
+ * and cleared from the kept snapshots. Finally the {@code revinfo} rows recorded before the horizon that no
+ * audit row refers to any more are deleted.
+ * </p>
+ * <p>
+ * The tables are walked in {@code (rev, id)} order in windows of {@code library.audit.retention.batch-size}
+ * rows, each window in its own short transaction with a {@code lock_timeout}, and the job sleeps
+ * {@code library.audit.retention.batch-pause} between windows, so it never holds locks for long and leaves
+ * room to vacuum and replication. An export file is synced to disk before its rows are deleted: a failed
+ * commit can leave rows exported twice, never lost. Rows processed per second are logged for every table
+ * and exposed as {@code library.audit.retention.throughput}; {@code library.audit.retention.rows} counts them
+ * by table and action. The job runs on its own thread, one run at a time.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AuditRetentionJob {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration lockTimeout;
+    private final Path archiveDir;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastThroughput = new AtomicLong();
+
+    public AuditRetentionJob(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${library.audit.retention.enabled:false}") boolean enabled,
+                             @Value("${library.audit.retention.horizon:365d}") Duration horizon,
+                             @Value("${library.audit.retention.batch-size:5000}") int batchSize,
+                             @Value("${library.audit.retention.batch-pause:100ms}") Duration batchPause,
+                             @Value("${library.audit.retention.lock-timeout:2s}") Duration lockTimeout,
+                             @Value("${library.audit.retention.archive-dir:audit-archive}") Path archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.lockTimeout = lockTimeout;
+        this.archiveDir = archiveDir;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("library.audit.retention.throughput", lastThroughput, AtomicLong::get)
+                .description("Audit rows processed per second by the last retention run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a retention run in the background unless one is still going.
+     */
+    @Scheduled(cron = "${library.audit.retention.cron:0 30 3 * * *}")
+    public void schedule() {
+        if (enabled && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    run();
+                } catch (RuntimeException e) {
+                    log.error("Audit retention run failed; it resumes with the next run", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run() {
+        long horizonMillis = Instant.now().minus(horizon).toEpochMilli();
+        Long lastRev = jdbcTemplate.queryForObject(
+                "SELECT max(rev) FROM revinfo WHERE revtstmp < ?", Long.class, horizonMillis);
+        if (lastRev == null) {
+            log.info("Audit retention: no revision older than {}", horizon);
+            return;
+        }
+        Horizon horizonAt = new Horizon(horizonMillis, lastRev);
+
+        long start = System.nanoTime();
+        long processed = 0;
+        for (AuditedEntity entity : AuditedEntity.values()) {
+            processed += compact(entity, horizonAt);
+        }
+        processed += deleteOrphanRevisions(horizonAt);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lastThroughput.set(Math.round(processed / Math.max(seconds, 1e-3)));
+        log.info("Audit retention of revisions before {} processed {} rows in {}s ({} rows/s)",
+                Instant.ofEpochMilli(horizonAt.millis()), processed, String.format("%.1f", seconds), lastThroughput.get());
+    }
+
+    /**
+     * Archives and deletes the superseded rows of one audit table and clears the secrets of the rows kept.
+     *
+     * @return the number of rows reviewed
+     */
+    private long compact(AuditedEntity entity, Horizon horizonAt) {
+        String table = entity.getAuditTable();
+        long start = System.nanoTime();
+        long reviewed = 0;
+        long archived = 0;
+        long scrubbed = 0;
+        Window window = new Window(Long.MIN_VALUE, Long.MIN_VALUE, 0, 0, 0, false);
+        while (!window.last() && !Thread.currentThread().isInterrupted()) {
+            Window previous = window;
+            window = transactionTemplate.execute(status -> compactWindow(entity, horizonAt, previous));
+            reviewed += window.reviewed();
+            archived += window.archived();
+            scrubbed += window.scrubbed();
+            pause();
+        }
+        Counter.builder("library.audit.retention.rows").tags("table", table, "action", "archived")
+                .register(meterRegistry).increment(archived);
+        Counter.builder("library.audit.retention.rows").tags("table", table, "action", "scrubbed")
+                .register(meterRegistry).increment(scrubbed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Audit retention on {}: reviewed {}, archived {}, scrubbed {} rows in {}s ({} rows/s)",
+                table, reviewed, archived, scrubbed, String.format("%.1f", seconds),
+                Math.round(reviewed / Math.max(seconds, 1e-3)));
+        return reviewed;
+    }
+
+    private Window compactWindow(AuditedEntity entity, Horizon horizonAt, Window after) {
+        String table = entity.getAuditTable();
+        limitLockWait();
+        // The window ends batchSize rows after the previous one, or at the last revision before the horizon
+        List<long[]> end = jdbcTemplate.query(
+                "SELECT rev, id FROM " + table + " WHERE (rev, id) > (?, ?) AND rev <= ? ORDER BY rev, id OFFSET ? LIMIT 1",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong("rev"), resultSet.getLong("id")},
+                after.rev(), after.id(), horizonAt.lastRev(), batchSize - 1);
+        boolean last = end.isEmpty();
+        long toRev = last ? horizonAt.lastRev() : end.get(0)[0];
+        long toId = last ? Long.MAX_VALUE : end.get(0)[1];
+        Integer reviewed = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + table + " a JOIN revinfo ra ON ra.rev = a.rev"
+                        + " WHERE (a.rev, a.id) > (?, ?) AND (a.rev, a.id) <= (?, ?) AND ra.revtstmp < ?",
+                Integer.class, after.rev(), after.id(), toRev, toId, horizonAt.millis());
+
+        String withoutSecrets = entity.getSecretColumns().isEmpty() ? ""
+                : " - '{" + String.join(",", entity.getSecretColumns()) + "}'::text[]";
+        List<ArchivedRow> rows = jdbcTemplate.query("""
+                        WITH archived AS (
+                            DELETE FROM %1$s a
+                            USING revinfo ra
+                            WHERE ra.rev = a.rev AND (a.rev, a.id) > (?, ?) AND (a.rev, a.id) <= (?, ?)
+                              AND ra.revtstmp < ?
+                              AND EXISTS (SELECT 1
+                                          FROM %1$s n
+                                                   JOIN revinfo rn ON rn.rev = n.rev
+                                          WHERE n.id = a.id AND rn.revtstmp < ?
+                                            AND (rn.revtstmp, n.rev) > (ra.revtstmp, a.rev))
+                            RETURNING a.*
+                        )
+                        SELECT (to_jsonb(d)%2$s || jsonb_build_object('revtstmp', r.revtstmp, 'username', r.username,
+                                                                      'user_type', r.user_type))::text AS row_json,
+                               d.rev, d.id, r.revtstmp
+                        FROM archived d
+                                 JOIN revinfo r ON r.rev = d.rev
+                        """.formatted(table, withoutSecrets),
+                (resultSet, rowNum) -> new ArchivedRow(resultSet.getLong("rev"), resultSet.getLong("id"),
+                        resultSet.getLong("revtstmp"), resultSet.getString("row_json")),
+                after.rev(), after.id(), toRev, toId, horizonAt.millis(), horizonAt.millis());
+        export(table, rows);
+
+        int scrubbed = 0;
+        if (!entity.getSecretColumns().isEmpty()) {
+            List<String> assignments = new ArrayList<>();
+            List<String> conditions = new ArrayList<>();
+            for (String column : entity.getSecretColumns()) {
+                assignments.add(column + " = NULL");
+                conditions.add(column + " IS NOT NULL");
+            }
+            scrubbed = jdbcTemplate.update(
+                    "UPDATE " + table + " SET " + String.join(", ", assignments)
+                            + " WHERE (rev, id) > (?, ?) AND (rev, id) <= (?, ?) AND (" + String.join(" OR ", conditions) + ")"
+                            + " AND rev IN (SELECT rev FROM revinfo WHERE rev > ? AND rev <= ? AND revtstmp < ?)",
+                    after.rev(), after.id(), toRev, toId, after.rev(), toRev, horizonAt.millis());
+        }
+        return new Window(toRev, toId, reviewed == null ? 0 : reviewed, rows.size(), scrubbed, last);
+    }
+
+    /**
+     * Deletes the revisions recorded before the horizon that no audit row refers to any more.
+     *
+     * @return the number of revisions reviewed
+     */
+    private long deleteOrphanRevisions(Horizon horizonAt) {
+        long start = System.nanoTime();
+        long reviewed = 0;
+        long deleted = 0;
+        long afterRev = Long.MIN_VALUE;
+        String unreferenced = String.join(" AND ", Arrays.stream(AuditedEntity.values())
+                .map(entity -> "NOT EXISTS (SELECT 1 FROM " + entity.getAuditTable() + " a WHERE a.rev = r.rev)")
+                .toList());
+        while (!Thread.currentThread().isInterrupted()) {
+            long fromRev = afterRev;
+            long[] window = transactionTemplate.execute(status -> {
+                limitLockWait();
+                List<Long> revs = jdbcTemplate.queryForList(
+                        "SELECT rev FROM revinfo WHERE rev > ? AND rev <= ? AND revtstmp < ? ORDER BY rev LIMIT ?",
+                        Long.class, fromRev, horizonAt.lastRev(), horizonAt.millis(), batchSize);
+                if (revs.isEmpty()) {
+                    return null;
+                }
+                long toRev = revs.get(revs.size() - 1);
+                int removed = jdbcTemplate.update(
+                        "DELETE FROM revinfo r WHERE r.rev > ? AND r.rev <= ? AND r.revtstmp < ? AND " + unreferenced,
+                        fromRev, toRev, horizonAt.millis());
+                return new long[]{toRev, revs.size(), removed};
+            });
+            if (window == null) {
+                break;
+            }
+            afterRev = window[0];
+            reviewed += window[1];
+            deleted += window[2];
+            pause();
+        }
+        Counter.builder("library.audit.retention.rows").tags("table", "revinfo", "action", "deleted")
+                .register(meterRegistry).increment(deleted);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Audit retention on revinfo: reviewed {}, deleted {} rows in {}s ({} rows/s)",
+                reviewed, deleted, String.format("%.1f", seconds), Math.round(reviewed / Math.max(seconds, 1e-3)));
+        return reviewed;
+    }
+
+    /**
+     * Writes the archived rows of a window to one file per month, named after its first row and synced to
+     * disk before the window commits.
+     */
+    private void export(String table, List<ArchivedRow> rows) {
+        Map<YearMonth, List<ArchivedRow>> rowsByMonth = new TreeMap<>();
+        for (ArchivedRow row : rows) {
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(row.revtstmp()).atOffset(ZoneOffset.UTC));
+            rowsByMonth.computeIfAbsent(month, key -> new ArrayList<>()).add(row);
+        }
+        rowsByMonth.forEach((month, monthRows) -> {
+            monthRows.sort(Comparator.comparingLong(ArchivedRow::rev).thenComparingLong(ArchivedRow::id));
+            ArchivedRow first = monthRows.get(0);
+            try {
+                Path directory = Files.createDirectories(archiveDir.resolve(table).resolve(month.toString()));
+                Path file = directory.resolve(first.rev() + "-" + first.id() + ".ndjson.gz");
+                Path partial = directory.resolve(file.getFileName() + ".part");
+                try (FileOutputStream output = new FileOutputStream(partial.toFile())) {
+                    GZIPOutputStream gzip = new GZIPOutputStream(output);
+                    Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+                    for (ArchivedRow row : monthRows) {
+                        writer.write(row.json());
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                    gzip.finish();
+                    output.getFD().sync();
+                    writer.close();
+                }
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not archive " + table + " rows of " + month, e);
+            }
+        });
+    }
+
+    private void limitLockWait() {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The retention horizon and the highest revision recorded before it, which bounds the scans.
+     */
+    private record Horizon(long millis, long lastRev) {
+    }
+
+    private record Window(long rev, long id, int reviewed, int archived, int scrubbed, boolean last) {
+    }
+
+    private record ArchivedRow(long rev, long id, long revtstmp, String json) {
+    }
+}
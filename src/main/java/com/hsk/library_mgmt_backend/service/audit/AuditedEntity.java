@@ -0,0 +1,85 @@
+package com.hsk.library_mgmt_backend.service.audit;
+
+import com.hsk.library_mgmt_backend.exception.NotFoundException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The audited entities readable through the audit API, with the columns of their audit table that may be
+ * returned. Only listed columns are ever selected, so secrets such as the member password hash stay out of
+ * the responses. Secret columns are never returned and are cleared from the history kept by
+ * {@link AuditRetentionJob}.
+ */
+public enum AuditedEntity {
+    BOOK("book", "book_aud", List.of(),
+            "title", "title",
+            "author", "author",
+            "isbn", "isbn",
+            "genre", "genre",
+            "publication_date", "publicationDate",
+            "copies_available", "copiesAvailable"),
+    MEMBER("member", "member_aud", List.of("password"),
+            "name", "name",
+            "email", "email",
+            "phone", "phone",
+            "role", "role"),
+    BOOK_TRANSACTION("book-transaction", "book_transaction_aud", List.of(),
+            "book_fk", "bookId",
+            "member_fk", "memberId",
+            "request_date", "requestDate",
+            "status", "status",
+            "issue_date", "issueDate",
+            "due_date", "dueDate",
+            "return_date", "returnDate");
+
+    private final String path;
+    private final String auditTable;
+    private final List<String> secretColumns;
+    private final Map<String, String> fieldsByColumn;
+
+    /**
+     * @param secretColumns    the audit table columns holding secrets
+     * @param columnsAndFields pairs of an audit table column and its field name in the response, in response order
+     */
+    AuditedEntity(String path, String auditTable, List<String> secretColumns, String... columnsAndFields) {
+        this.path = path;
+        this.auditTable = auditTable;
+        this.secretColumns = secretColumns;
+        this.fieldsByColumn = new LinkedHashMap<>();
+        for (int i = 0; i < columnsAndFields.length; i += 2) {
+            fieldsByColumn.put(columnsAndFields[i], columnsAndFields[i + 1]);
+        }
+    }
+
+    /**
+     * @param path the entity segment of the audit API path, e.g. {@code book-transaction}
+     * @return the audited entity with that path
+     * @throws NotFoundException if no audited entity has that path
+     */
+    public static AuditedEntity fromPath(String path) {
+        return Arrays.stream(values())
+                .filter(entity -> entity.path.equals(path))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Unknown audited entity " + path + ", expected one of "
+                        + Arrays.stream(values()).map(entity -> entity.path).collect(Collectors.joining(", "))));
+    }
+
+    public String getAuditTable() {
+        return auditTable;
+    }
+
+    public List<String> getSecretColumns() {
+        return secretColumns;
+    }
+
+    /**
+     * @return the returned columns of the audit table mapped to their field names in the response
+     */
+    public Map<String, String> getFieldsByColumn() {
+        return fieldsByColumn;
+    }
+}
@@ -0,0 +1,167 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.response.AdminDashboardCountResponse;
+import com.hsk.library_mgmt_backend.service.DashboardService;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.MemberChangedEvent;
+import com.hsk.library_mgmt_backend.service.impl.DashboardServiceImpl.DashboardSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the admin dashboard counts to every connected Server-Sent Events stream.
+ * <p>
+ * Committed circulation changes only mark the counts dirty. A single scheduled publisher then computes
+ * the counts once, bypassing the cached dashboard entry, and sends them to all streams if they differ from
+ * the last push, so bursts of changes are coalesced and the cost does not grow with the number of connected
+ * dashboards. With {@code library.dashboard.source=COUNTERS} the counts are cheap to read and are checked on
+ * every tick, which also picks up changes committed on other nodes. With {@code QUERY} they are recomputed
+ * every {@code library.dashboard.stream.refresh} besides, to catch loans becoming overdue and other nodes'
+ * changes.
+ * </p>
+ */
+@Slf4j
+@Component
+public class AdminDashboardBroadcaster {
+
+    private static final String EVENT_NAME = "counts";
+    private static final long NOT_DIRTY = 0;
+
+    private final DashboardService dashboardService;
+    private final boolean checkEveryTick;
+    private final Duration emitterTimeout;
+    private final long refreshNanos;
+    private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+    private final Timer pushLatency;
+
+    // System.nanoTime() of the first change not yet pushed, or NOT_DIRTY
+    private final AtomicLong dirtySince = new AtomicLong(NOT_DIRTY);
+    private volatile AdminDashboardCountResponse lastPushed;
+    private long lastComputedNanos = System.nanoTime();
+
+    public AdminDashboardBroadcaster(DashboardService dashboardService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${library.dashboard.source:COUNTERS}") DashboardSource source,
+                                     @Value("${library.dashboard.stream.timeout:PT30M}") Duration emitterTimeout,
+                                     @Value("${library.dashboard.stream.refresh:PT1M}") Duration refresh) {
+        this.dashboardService = dashboardService;
+        this.checkEveryTick = source == DashboardSource.COUNTERS;
+        this.emitterTimeout = emitterTimeout;
+        this.refreshNanos = refresh.toNanos();
+        this.pushLatency = Timer.builder("library.dashboard.stream.push.latency")
+                .description("Time from a committed circulation change to its push to the dashboard streams")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("library.dashboard.stream.connections", emitters, Set::size)
+                .description("Connected admin dashboard streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream that first receives the current counts and then every change.
+     *
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeout.toMillis()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+
+        AdminDashboardCountResponse counts = lastPushed;
+        if (counts == null) {
+            // First stream: the next tick pushes only if the counts differ from these
+            counts = dashboardService.getAdminDashboardCount();
+            lastPushed = counts;
+        }
+        if (send(emitter, counts)) {
+            emitters.add(emitter);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanStateChanged(LoanStateChangedEvent event) {
+        markDirty();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        markDirty();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMemberChanged(MemberChangedEvent event) {
+        markDirty();
+    }
+
+    /**
+     * Computes the counts once and pushes them to every stream if they changed.
+     */
+    @Scheduled(fixedDelayString = "${library.dashboard.stream.interval:PT1S}")
+    public void publish() {
+        if (emitters.isEmpty()) {
+            lastPushed = null;
+            return;
+        }
+
+        long now = System.nanoTime();
+        long changedAt = dirtySince.getAndSet(NOT_DIRTY);
+        if (!checkEveryTick && changedAt == NOT_DIRTY && now - lastComputedNanos < refreshNanos) {
+            return;
+        }
+
+        lastComputedNanos = now;
+        // A cached entry may predate the change that marked the counts dirty
+        AdminDashboardCountResponse counts = dashboardService.refreshAdminDashboardCount();
+        if (Objects.equals(counts, lastPushed)) {
+            return;
+        }
+
+        lastPushed = counts;
+        emitters.forEach(emitter -> {
+            if (!send(emitter, counts)) {
+                emitters.remove(emitter);
+            }
+        });
+        if (changedAt != NOT_DIRTY) {
+            pushLatency.record(System.nanoTime() - changedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void markDirty() {
+        // Keep the time of the oldest unpushed change; nanoTime is never exactly NOT_DIRTY in practice
+        dirtySince.compareAndSet(NOT_DIRTY, System.nanoTime());
+    }
+
+    private static boolean send(SseEmitter emitter, AdminDashboardCountResponse counts) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(counts));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping admin dashboard stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
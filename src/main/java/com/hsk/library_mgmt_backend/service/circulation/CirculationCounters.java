@@ -0,0 +1,261 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.persistent.entity.CirculationStat.Counter;
+import com.hsk.library_mgmt_backend.persistent.projection.AdminDashboardCounts;
+import com.hsk.library_mgmt_backend.persistent.projection.CounterTotal;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.CirculationStatRepository;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.LoanState;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.MemberChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Library-wide circulation totals maintained incrementally instead of counted on every read.
+ * <p>
+ * Every change is written to the striped {@code circulation_stats} table in the transaction that
+ * causes it, coalesced into one write per counter. Reads are served from a snapshot of the summed stripes,
+ * reloaded by the first read after {@code library.circulation.refresh-interval} or after a change committed
+ * on this node, so a read costs at most one query over the few counter rows and changes committed on other
+ * nodes show within the refresh interval. The snapshot is replaced as a whole, so no committed change is
+ * lost by a reload.
+ * </p>
+ * <p>
+ * {@link Counter#OVERDUE} is not stored: loans become overdue as days pass, which no write records, so it is
+ * counted from the partial overdue index when the snapshot is loaded. A scheduled reconciliation recounts
+ * the other counters from the source tables and corrects any drift (e.g. bulk deletes).
+ * </p>
+ */
+@Slf4j
+@Component
+public class CirculationCounters {
+
+    private static final int STRIPES = 16;
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final CirculationStatRepository circulationStatRepository;
+    private final BookTransactionRepository bookTransactionRepository;
+    private final TransactionTemplate reconcileTransaction;
+    private final long refreshNanos;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Set by every local commit that changed a counter, cleared when a reload starts
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private volatile Snapshot snapshot;
+
+    public CirculationCounters(CirculationStatRepository circulationStatRepository,
+                               BookTransactionRepository bookTransactionRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${library.circulation.refresh-interval:PT1S}") Duration refreshInterval) {
+        this.circulationStatRepository = circulationStatRepository;
+        this.bookTransactionRepository = bookTransactionRepository;
+        // Source counts and stored sums are read from the same snapshot
+        this.reconcileTransaction = new TransactionTemplate(transactionManager);
+        this.reconcileTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.refreshNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * @param counter the counter to read
+     * @return the value of the counter, at most {@code library.circulation.refresh-interval} old
+     */
+    public long get(Counter counter) {
+        return getAll().get(counter);
+    }
+
+    /**
+     * @return the value of every counter, all from the same snapshot
+     */
+    public Map<Counter, Long> getAll() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current.values();
+        }
+        if (current == null) {
+            reloadLock.lock();
+        } else if (!reloadLock.tryLock()) {
+            // Another reader is reloading; meanwhile the previous values are served
+            return current.values();
+        }
+        try {
+            current = snapshot;
+            return isFresh(current) ? current.values() : reload().values();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onLoanStateChanged(LoanStateChangedEvent event) {
+        LoanState before = event.before();
+        LoanState after = event.after();
+        add(Counter.REQUESTED, delta(before.requested(), after.requested()));
+        add(Counter.BORROWED, delta(before.borrowed(), after.borrowed()));
+    }
+
+    @EventListener
+    @Transactional
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isCreated()) {
+            add(Counter.BOOKS, 1);
+        } else if (event.isDeleted()) {
+            add(Counter.BOOKS, -1);
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.isCreated()) {
+            add(Counter.MEMBERS, 1);
+        } else if (event.isDeleted()) {
+            add(Counter.MEMBERS, -1);
+        }
+    }
+
+    /**
+     * Recounts the stored counters from the source tables and writes the difference to the counter table.
+     * Both are read from the same snapshot, so concurrent changes are neither lost nor counted twice. A
+     * serialization failure caused by a concurrent change to the corrected stripe is retried.
+     */
+    @Scheduled(initialDelayString = "${library.circulation.reconcile-interval:PT5M}",
+            fixedDelayString = "${library.circulation.reconcile-interval:PT5M}")
+    public void reconcile() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                reconcileTransaction.executeWithoutResult(status -> correctDrift());
+                break;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == RECONCILE_ATTEMPTS) {
+                    log.warn("Circulation counter reconciliation failed {} times, retrying with the next run: {}",
+                            attempt, e.getMessage());
+                    return;
+                }
+                log.debug("Circulation counter reconciliation conflicted with a concurrent change, retrying");
+            }
+        }
+        stale.set(true);
+    }
+
+    private void correctDrift() {
+        AdminDashboardCounts actual = bookTransactionRepository.countAdminDashboard();
+        Map<Counter, Long> expected = new EnumMap<>(Counter.class);
+        expected.put(Counter.BOOKS, actual.getTotalBooks());
+        expected.put(Counter.MEMBERS, actual.getTotalMembers());
+        expected.put(Counter.REQUESTED, actual.getTotalRequestedBooks());
+        expected.put(Counter.BORROWED, actual.getTotalBorrowedBooks());
+
+        Map<Counter, Long> stored = new EnumMap<>(Counter.class);
+        for (CounterTotal total : circulationStatRepository.sumByCounter()) {
+            stored.put(total.getCounter(), total.getTotal());
+        }
+
+        expected.forEach((counter, value) -> {
+            long drift = value - stored.getOrDefault(counter, 0L);
+            if (drift != 0) {
+                log.info("Correcting circulation counter {} by {}", counter, drift);
+                circulationStatRepository.addToStripe(counter.name(), (short) 0, drift);
+            }
+        });
+    }
+
+    private void add(Counter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.deltas.merge(counter, delta, Long::sum);
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && !stale.get() && System.nanoTime() - current.loadedAt() < refreshNanos;
+    }
+
+    private Snapshot reload() {
+        // Cleared before reading, so a commit landing during the read marks the new snapshot stale again
+        stale.set(false);
+        Map<Counter, Long> values = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            values.put(counter, 0L);
+        }
+        for (CounterTotal total : circulationStatRepository.sumByCounter()) {
+            values.put(total.getCounter(), total.getTotal());
+        }
+        values.put(Counter.OVERDUE, bookTransactionRepository.countOverdueBooks());
+        Snapshot loaded = new Snapshot(Collections.unmodifiableMap(values), System.nanoTime());
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private static long delta(boolean before, boolean after) {
+        return (after ? 1 : 0) - (before ? 1 : 0);
+    }
+
+    /**
+     * Counter values and the {@link System#nanoTime()} they were read at.
+     */
+    private record Snapshot(Map<Counter, Long> values, long loadedAt) {
+    }
+
+    /**
+     * The counter changes of one transaction, written with one statement per counter just before it
+     * commits, so a transaction creating many rows (e.g. a bulk import) does not update the counter
+     * table once per row.
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+        private final Map<Counter, Long> deltas = new EnumMap<>(Counter.class);
+
+        @Override
+        public int getOrder() {
+            // Ahead of the after-commit event listeners, which may read the counters
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            short stripe = (short) ThreadLocalRandom.current().nextInt(STRIPES);
+            deltas.forEach((counter, delta) -> {
+                if (delta != 0) {
+                    circulationStatRepository.addToStripe(counter.name(), stripe, delta);
+                }
+            });
+        }
+
+        @Override
+        public void afterCommit() {
+            stale.set(true);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CirculationCounters.this);
+        }
+    }
+}
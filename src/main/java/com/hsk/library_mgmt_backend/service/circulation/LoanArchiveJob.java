@@ -0,0 +1,179 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves closed loans out of {@code book_transaction} into the {@code book_transaction_archive} table.
+ * <p>
+ * On {@code library.loan-archive.cron}, when {@code library.loan-archive.enabled}, the {@code RETURNED} and
+ * {@code CANCELLED} transactions closed more than {@code library.loan-archive.older-than} ago are moved,
+ * oldest first. A loan is closed on its return date, or when it was last updated if it was cancelled, so a
+ * long loan is archived by when it ended rather than when it was requested. The archive is partitioned by
+ * year of the request date; the yearly partitions the run needs are created first. {@code book_transaction} keeps only the recent and open loans the request, return and
+ * dashboard queries work on, while the listing reads the archive too when asked to include it.
+ * </p>
+ * <p>
+ * Each batch of {@code library.loan-archive.batch-size} loans is deleted and inserted into the archive in
+ * one statement and a short transaction with a {@code lock_timeout}; loans locked by a running request are
+ * skipped and picked up by the next run. The job sleeps {@code library.loan-archive.batch-pause} between
+ * batches. The move is not a change of the loans, so it leaves no audit revision and no circulation event.
+ * Loans moved per second are logged and exposed as {@code library.loan-archive.throughput};
+ * {@code library.loan-archive.moved} counts them. The job runs on its own thread, one run at a time.
+ * </p>
+ */
+@Slf4j
+@Component
+public class LoanArchiveJob {
+
+    private static final String COLUMNS = """
+            id, version, created_at, created_by, updated_at, updated_by, deleted,
+            book_fk, member_fk, request_date, status, issue_date, due_date, return_date""";
+    // Matches the expression of the idx_book_transaction_closed_on index
+    private static final String CLOSED_ON = "COALESCE(return_date, CAST(updated_at AS date))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Period olderThan;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration lockTimeout;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lastThroughput = new AtomicLong();
+    private final Counter movedLoans;
+
+    public LoanArchiveJob(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${library.loan-archive.enabled:false}") boolean enabled,
+                          @Value("${library.loan-archive.older-than:P12M}") Period olderThan,
+                          @Value("${library.loan-archive.batch-size:5000}") int batchSize,
+                          @Value("${library.loan-archive.batch-pause:100ms}") Duration batchPause,
+                          @Value("${library.loan-archive.lock-timeout:2s}") Duration lockTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.olderThan = olderThan;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.lockTimeout = lockTimeout;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loan-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("library.loan-archive.throughput", lastThroughput, AtomicLong::get)
+                .description("Loans moved to the archive per second by the last run")
+                .register(meterRegistry);
+        this.movedLoans = Counter.builder("library.loan-archive.moved")
+                .description("Closed loans moved to the archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts an archive run in the background unless one is still going.
+     */
+    @Scheduled(cron = "${library.loan-archive.cron:0 0 4 * * *}")
+    public void schedule() {
+        if (enabled && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    run();
+                } catch (RuntimeException e) {
+                    log.error("Loan archive run failed; it resumes with the next run", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run() {
+        LocalDate cutoff = LocalDate.now().minus(olderThan);
+        // The partitions are chosen by request date, which a return date set by hand does not bound
+        Date[] requested = jdbcTemplate.queryForObject(
+                "SELECT min(request_date), max(request_date) FROM book_transaction WHERE status IN ('RETURNED', 'CANCELLED') AND "
+                        + CLOSED_ON + " < ?",
+                (resultSet, rowNum) -> new Date[]{resultSet.getDate(1), resultSet.getDate(2)},
+                Date.valueOf(cutoff));
+        if (requested == null || requested[0] == null) {
+            log.info("Loan archive: no loan closed before {}", cutoff);
+            return;
+        }
+        for (int year = requested[0].toLocalDate().getYear(); year <= requested[1].toLocalDate().getYear(); year++) {
+            createPartition(year);
+        }
+
+        long start = System.nanoTime();
+        long moved = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(cutoff));
+            moved += batch;
+            movedLoans.increment(batch);
+            pause();
+        } while (batch == batchSize && !Thread.currentThread().isInterrupted());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lastThroughput.set(Math.round(moved / Math.max(seconds, 1e-3)));
+        log.info("Loan archive moved {} loans closed before {} in {}s ({} rows/s)",
+                moved, cutoff, String.format("%.1f", seconds), lastThroughput.get());
+    }
+
+    private void createPartition(int year) {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS book_transaction_archive_%1$d
+                PARTITION OF book_transaction_archive
+                FOR VALUES FROM ('%1$d-01-01') TO ('%2$d-01-01')
+                """.formatted(year, year + 1));
+    }
+
+    private int moveBatch(LocalDate cutoff) {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+        return jdbcTemplate.update("""
+                WITH moved AS (
+                    DELETE FROM book_transaction
+                    WHERE id IN (SELECT id
+                                 FROM book_transaction
+                                 WHERE status IN ('RETURNED', 'CANCELLED') AND %2$s < ?
+                                 ORDER BY %2$s, id
+                                 LIMIT ?
+                                 FOR UPDATE SKIP LOCKED)
+                    RETURNING %1$s
+                )
+                INSERT INTO book_transaction_archive (%1$s)
+                SELECT %1$s FROM moved
+                """.formatted(COLUMNS, CLOSED_ON), Date.valueOf(cutoff), batchSize);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberCirculationSummaryRepository;
+import com.hsk.library_mgmt_backend.response.MemberDashboardCountResponse;
+import com.hsk.library_mgmt_backend.service.event.LoanState;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.MemberChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves the member dashboard from the {@code member_circulation_summary} read model.
+ * <p>
+ * Summaries are seeded from the member's transactions by the first change of one of them and then updated
+ * with the deltas of each {@link LoanStateChangedEvent} in the transaction that caused it. Reads never write:
+ * a member without a summary is counted from the {@code (member_fk, status)} index. Overdue loans are counted
+ * at read time from the partial overdue index. Responses are cached per member until
+ * {@code library.dashboard.member-cache.ttl} expires or one of the member's transactions changes.
+ * </p>
+ * <p>
+ * Every {@code library.dashboard.member-summary.reconcile-interval} the summaries are recounted from the
+ * transactions, {@code library.dashboard.member-summary.batch-size} members per transaction, which corrects
+ * any drift (e.g. a summary seeded concurrently with a bulk delete).
+ * </p>
+ */
+@Slf4j
+@Component
+public class MemberCirculationSummaries {
+
+    private static final int RECONCILE_ATTEMPTS = 3;
+
+    private final MemberCirculationSummaryRepository summaryRepository;
+    private final BookTransactionRepository bookTransactionRepository;
+    private final TransactionTemplate reconcileTransaction;
+    private final int reconcileBatchSize;
+    private final Cache<Long, MemberDashboardCountResponse> cache;
+
+    public MemberCirculationSummaries(MemberCirculationSummaryRepository summaryRepository,
+                                      BookTransactionRepository bookTransactionRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${library.dashboard.member-cache.max-members:10000}") long maxMembers,
+                                      @Value("${library.dashboard.member-cache.ttl:1m}") Duration ttl,
+                                      @Value("${library.dashboard.member-summary.batch-size:1000}") int reconcileBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookTransactionRepository = bookTransactionRepository;
+        // The recount and the summaries it corrects are read from the same snapshot
+        this.reconcileTransaction = new TransactionTemplate(transactionManager);
+        this.reconcileTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxMembers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "member-dashboard");
+    }
+
+    /**
+     * @param memberId the ID of the member
+     * @return the member's dashboard counts
+     */
+    public MemberDashboardCountResponse get(Long memberId) {
+        return cache.get(memberId, this::load);
+    }
+
+    @EventListener
+    @Transactional
+    public void onLoanStateChanged(LoanStateChangedEvent event) {
+        Long memberId = event.memberId();
+        if (summaryRepository.seedIfMissing(memberId) == 0) {
+            // The summary existed before this change; a freshly seeded one already includes it
+            LoanState before = event.before();
+            LoanState after = event.after();
+            summaryRepository.addDeltas(memberId,
+                    delta(before.exists(), after.exists()),
+                    delta(before.requested(), after.requested()),
+                    delta(before.borrowed(), after.borrowed()));
+        }
+        invalidateAfterCompletion(memberId);
+    }
+
+    @EventListener
+    @Transactional
+    public void onMemberChanged(MemberChangedEvent event) {
+        if (event.isDeleted()) {
+            summaryRepository.deleteById(event.memberId());
+            invalidateAfterCompletion(event.memberId());
+        }
+    }
+
+    /**
+     * Drops the summaries of the members with a transaction for the book; call it before those
+     * transactions are bulk deleted.
+     *
+     * @param bookId the ID of the book whose transactions are about to be deleted
+     */
+    @Transactional
+    public void forgetMembersOfBook(Long bookId) {
+        List<Long> memberIds = summaryRepository.findMemberIdsOfBook(bookId);
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.deleteAllByIdInBatch(memberIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidateAll(memberIds);
+            }
+        });
+    }
+
+    /**
+     * Recounts every summary from the member's transactions and corrects the ones that drifted.
+     * A batch hitting a serialization failure from a concurrent change is retried.
+     */
+    @Scheduled(initialDelayString = "${library.dashboard.member-summary.reconcile-interval:PT15M}",
+            fixedDelayString = "${library.dashboard.member-summary.reconcile-interval:PT15M}")
+    public void reconcile() {
+        long corrected = 0;
+        Long after = 0L;
+        List<Long> memberIds;
+        do {
+            memberIds = summaryRepository.findMemberIdsAfter(after, PageRequest.of(0, reconcileBatchSize));
+            if (memberIds.isEmpty()) {
+                break;
+            }
+            corrected += recount(memberIds);
+            after = memberIds.get(memberIds.size() - 1);
+        } while (memberIds.size() == reconcileBatchSize);
+        if (corrected > 0) {
+            log.info("Corrected {} member circulation summaries", corrected);
+        }
+    }
+
+    private int recount(List<Long> memberIds) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int corrected = reconcileTransaction.execute(status -> summaryRepository.recount(memberIds));
+                if (corrected > 0) {
+                    cache.invalidateAll(memberIds);
+                }
+                return corrected;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == RECONCILE_ATTEMPTS) {
+                    log.warn("Member circulation summary recount failed {} times, retrying with the next run: {}",
+                            attempt, e.getMessage());
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private MemberDashboardCountResponse load(Long memberId) {
+        long totalOverdueBooks = bookTransactionRepository.countOverdueBooksWithMember(memberId);
+        return summaryRepository.findById(memberId)
+                .map(summary -> new MemberDashboardCountResponse(summary.getTotalBooks(), summary.getRequestedBooks(),
+                        summary.getBorrowedBooks(), totalOverdueBooks))
+                .orElseGet(() -> new MemberDashboardCountResponse(
+                        bookTransactionRepository.countBooksWithMember(memberId),
+                        bookTransactionRepository.countRequestedBooksWithMember(memberId),
+                        bookTransactionRepository.countBorrowedBooksWithMember(memberId),
+                        totalOverdueBooks));
+    }
+
+    private void invalidateAfterCompletion(Long memberId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate(memberId);
+            }
+        });
+    }
+
+    private static long delta(boolean before, boolean after) {
+        return (after ? 1 : 0) - (before ? 1 : 0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hsk.library_mgmt_backend.service.event;
+
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+
+/**
+ * Published by the {@link com.hsk.library_mgmt_backend.service.BookService} write methods
+ * whenever a book is created, updated or deleted, and when loans change its available copies.
+ *
+ * @param bookId the ID of the changed book
+ * @param before the book before the change, or null if it was created or only its copies changed
+ * @param after  the book after the change, or null if it was deleted or only its copies changed
+ */
+public record BookChangedEvent(Long bookId, BookSearchDocument before, BookSearchDocument after) {
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(book.getId(), null, BookSearchDocument.of(book));
+    }
+
+    public static BookChangedEvent updated(BookSearchDocument before, Book book) {
+        return new BookChangedEvent(book.getId(), before, BookSearchDocument.of(book));
+    }
+
+    public static BookChangedEvent deleted(Book book) {
+        return new BookChangedEvent(book.getId(), BookSearchDocument.of(book), null);
+    }
+
+    public static BookChangedEvent copiesChanged(Long bookId) {
+        return new BookChangedEvent(bookId, null, null);
+    }
+
+    public boolean isCreated() {
+        return before == null && after != null;
+    }
+
+    public boolean isDeleted() {
+        return before != null && after == null;
+    }
+
+    public boolean isCopiesChanged() {
+        return before == null && after == null;
+    }
+}
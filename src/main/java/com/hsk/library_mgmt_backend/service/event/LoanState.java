@@ -0,0 +1,33 @@
+package com.hsk.library_mgmt_backend.service.event;
+
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+
+import java.time.LocalDate;
+
+/**
+ * Which circulation totals a book transaction currently counts towards.
+ *
+ * @param exists    the book transaction exists
+ * @param requested the book is requested and awaiting approval
+ * @param borrowed  the book is approved and not yet returned
+ * @param overdue   the book is past its due date, not returned and not cancelled
+ */
+public record LoanState(boolean exists, boolean requested, boolean borrowed, boolean overdue) {
+
+    /**
+     * The state of a transaction that does not exist (before creation, after deletion).
+     */
+    public static final LoanState NONE = new LoanState(false, false, false, false);
+
+    public static LoanState of(BookTransaction bookTransaction) {
+        BookTransaction.Status status = bookTransaction.getStatus();
+        boolean open = bookTransaction.getReturnDate() == null;
+        return new LoanState(
+                true,
+                status == BookTransaction.Status.REQUESTED,
+                open && status == BookTransaction.Status.APPROVED,
+                open && status != BookTransaction.Status.CANCELLED
+                        && bookTransaction.getDueDate() != null
+                        && bookTransaction.getDueDate().isBefore(LocalDate.now()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.hsk.library_mgmt_backend.service.event;
+
+/**
+ * Published by the {@link com.hsk.library_mgmt_backend.service.BookTransactionService} write methods
+ * whenever a book transaction is created, changes status or is deleted.
+ *
+ * @param bookTransactionId the ID of the changed book transaction
+ * @param bookId            the ID of the book the transaction is for
+ * @param memberId          the ID of the member the transaction belongs to
+ * @param before            the state before the change, {@link LoanState#NONE} if it was created
+ * @param after             the state after the change, {@link LoanState#NONE} if it was deleted
+ */
+public record LoanStateChangedEvent(Long bookTransactionId, Long bookId, Long memberId,
+                                    LoanState before, LoanState after) {
+}
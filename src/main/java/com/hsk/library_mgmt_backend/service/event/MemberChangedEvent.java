@@ -0,0 +1,32 @@
+package com.hsk.library_mgmt_backend.service.event;
+
+/**
+ * Published by the {@link com.hsk.library_mgmt_backend.service.MemberService} write methods
+ * whenever a member is created, updated or deleted.
+ *
+ * @param memberId      the ID of the changed member
+ * @param previousEmail the member's email before the change, or null if it was created
+ * @param currentEmail  the member's email after the change, or null if it was deleted
+ */
+public record MemberChangedEvent(Long memberId, String previousEmail, String currentEmail) {
+
+    public static MemberChangedEvent created(Long memberId, String email) {
+        return new MemberChangedEvent(memberId, null, email);
+    }
+
+    public static MemberChangedEvent updated(Long memberId, String previousEmail, String currentEmail) {
+        return new MemberChangedEvent(memberId, previousEmail, currentEmail);
+    }
+
+    public static MemberChangedEvent deleted(Long memberId, String email) {
+        return new MemberChangedEvent(memberId, email, null);
+    }
+
+    public boolean isCreated() {
+        return previousEmail == null && currentEmail != null;
+    }
+
+    public boolean isDeleted() {
+        return previousEmail != null && currentEmail == null;
+    }
+}
@@ -0,0 +1,148 @@
+package com.hsk.library_mgmt_backend.service.impl;
+
+import com.hsk.library_mgmt_backend.dto.AuditEntryDto;
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.persistent.query.RevisionCursor;
+import com.hsk.library_mgmt_backend.service.AuditService;
+import com.hsk.library_mgmt_backend.service.audit.AuditedEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.envers.RevisionType;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the Envers audit tables with native queries.
+ * <p>
+ * Pages are fetched by keyset on {@code rev DESC, id DESC}: the history of one entity seeks the
+ * {@code (id, rev)} index of its audit table, and a time range seeks {@code revinfo(revtstmp)} then joins
+ * the audit rows on their primary key {@code (rev, id)}. Every page costs the same whatever its depth
+ * and nothing is counted. Only the columns listed by {@link AuditedEntity} are selected.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditServiceImpl implements AuditService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Retrieves the audited changes of one entity, newest first.
+     *
+     * @param entity the audited entity path, e.g. {@code book}
+     * @param id the ID of the entity
+     * @param cursor the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize the number of changes per page
+     * @return a page of changes and the cursor of the next page
+     */
+    @Override
+    public CursorPage<AuditEntryDto> getEntityHistory(String entity, Long id, String cursor, int pageSize) {
+        AuditedEntity auditedEntity = AuditedEntity.fromPath(entity);
+        validatePageSize(pageSize);
+        MapSqlParameterSource parameters = new MapSqlParameterSource("id", id)
+                .addValue("limit", pageSize + 1);
+        String sql = select(auditedEntity) + " WHERE a.id = :id";
+        if (cursor != null && !cursor.isEmpty()) {
+            parameters.addValue("rev", RevisionCursor.decode(cursor).rev());
+            sql += " AND a.rev < :rev";
+        }
+        sql += " ORDER BY a.rev DESC LIMIT :limit";
+
+        log.debug("Fetching audit history of {} {}", auditedEntity, id);
+        return page(jdbcTemplate.query(sql, parameters, rowMapper(auditedEntity)), pageSize);
+    }
+
+    /**
+     * Retrieves the audited changes of one entity type recorded in a time range, newest first.
+     *
+     * @param entity the audited entity path, e.g. {@code book}
+     * @param from the start of the range, inclusive
+     * @param to the end of the range, exclusive
+     * @param cursor the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize the number of changes per page
+     * @return a page of changes and the cursor of the next page
+     */
+    @Override
+    public CursorPage<AuditEntryDto> getChanges(String entity, Instant from, Instant to, String cursor, int pageSize) {
+        AuditedEntity auditedEntity = AuditedEntity.fromPath(entity);
+        validatePageSize(pageSize);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("The start of the range must be before its end");
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("from", from.toEpochMilli())
+                .addValue("to", to.toEpochMilli())
+                .addValue("limit", pageSize + 1);
+        String sql = select(auditedEntity) + " WHERE r.revtstmp >= :from AND r.revtstmp < :to";
+        if (cursor != null && !cursor.isEmpty()) {
+            RevisionCursor after = RevisionCursor.decode(cursor);
+            parameters.addValue("rev", after.rev()).addValue("id", after.id());
+            sql += " AND (a.rev, a.id) < (:rev, :id)";
+        }
+        sql += " ORDER BY a.rev DESC, a.id DESC LIMIT :limit";
+
+        log.debug("Fetching {} changes between {} and {}", auditedEntity, from, to);
+        return page(jdbcTemplate.query(sql, parameters, rowMapper(auditedEntity)), pageSize);
+    }
+
+    private static String select(AuditedEntity auditedEntity) {
+        String columns = auditedEntity.getFieldsByColumn().keySet().stream()
+                .map(column -> "a." + column)
+                .collect(Collectors.joining(", "));
+        return "SELECT a.rev, a.revtype, a.id, r.revtstmp, r.username, r.user_type, " + columns
+                + " FROM " + auditedEntity.getAuditTable() + " a JOIN revinfo r ON r.rev = a.rev";
+    }
+
+    private static RowMapper<AuditEntryDto> rowMapper(AuditedEntity auditedEntity) {
+        return (resultSet, rowNum) -> {
+            RevisionType revisionType = RevisionType.fromRepresentation(resultSet.getByte("revtype"));
+            Map<String, Object> state = Collections.emptyMap();
+            if (revisionType != RevisionType.DEL) {
+                state = new LinkedHashMap<>();
+                for (Map.Entry<String, String> field : auditedEntity.getFieldsByColumn().entrySet()) {
+                    Object value = resultSet.getObject(field.getKey());
+                    state.put(field.getValue(), value instanceof Date date ? date.toLocalDate() : value);
+                }
+            }
+            return new AuditEntryDto(
+                    resultSet.getLong("rev"),
+                    revisionType,
+                    Instant.ofEpochMilli(resultSet.getLong("revtstmp")),
+                    resultSet.getString("username"),
+                    resultSet.getString("user_type"),
+                    resultSet.getLong("id"),
+                    state);
+        };
+    }
+
+    /**
+     * Trims the extra row fetched to detect a following page and derives the cursor from the last row kept.
+     */
+    private static CursorPage<AuditEntryDto> page(List<AuditEntryDto> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<AuditEntryDto> content = rows.subList(0, pageSize);
+        AuditEntryDto last = content.get(pageSize - 1);
+        return new CursorPage<>(content, new RevisionCursor(last.rev(), last.entityId()).encode());
+    }
+
+    private static void validatePageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValidationException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -1,31 +1,41 @@
 package com.hsk.library_mgmt_backend.service.impl;
 
 import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
 import com.hsk.library_mgmt_backend.exception.AlreadyExistingException;
 import com.hsk.library_mgmt_backend.exception.NotFoundException;
 import com.hsk.library_mgmt_backend.mapper.BookMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
 import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
 import com.hsk.library_mgmt_backend.service.BookService;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import com.hsk.library_mgmt_backend.service.circulation.MemberCirculationSummaries;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.search.BookSearchCache;
+import com.hsk.library_mgmt_backend.service.search.BookSearchEngineResolver;
+import com.hsk.library_mgmt_backend.service.search.BookSuggestIndex;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service implementation for managing books in the library management system.
@@ -35,12 +45,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
+    /**
+     * Books imported per transaction by {@link #addBookBulky}: one ISBN lookup and a few JDBC batches each.
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final BookTransactionRepository bookTransactionRepository;
-
-    @PersistenceContext
-    private final EntityManager entityManager;
+    private final BookSearchEngineResolver bookSearchEngineResolver;
+    private final BookSuggestIndex bookSuggestIndex;
+    private final BookSearchCache bookSearchCache;
+    private final MemberCirculationSummaries memberCirculationSummaries;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Adds a new book to the repository.
@@ -54,7 +72,9 @@ public class BookServiceImpl implements BookService {
     public Book addBook(Book book) {
         Book existing = bookRepository.findByIsbn(book.getIsbn());
         if (existing != null) throw new AlreadyExistingException("Book already present");
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(saved));
+        return saved;
     }
 
     /**
@@ -70,9 +90,12 @@ public class BookServiceImpl implements BookService {
     public Book updateBookById(Long id, Book book) {
         Book toBeUpdatedBook = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book not found"));
+        BookSearchDocument before = BookSearchDocument.of(toBeUpdatedBook);
         toBeUpdatedBook = bookMapper.partialUpdate(book, toBeUpdatedBook);
 
-        return bookRepository.saveAndFlush(toBeUpdatedBook);
+        Book updated = bookRepository.saveAndFlush(toBeUpdatedBook);
+        eventPublisher.publishEvent(BookChangedEvent.updated(before, updated));
+        return updated;
     }
 
     /**
@@ -84,11 +107,14 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional
     public void deleteBookById(Long id) {
+        memberCirculationSummaries.forgetMembersOfBook(id);
         bookTransactionRepository.deleteByBookId(id);
+        bookTransactionRepository.deleteArchivedByBookId(id);
 
-        bookRepository.findById(id)
+        Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Book not found"));
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(book));
     }
 
     /**
@@ -106,6 +132,7 @@ public class BookServiceImpl implements BookService {
 
     /**
      * Retrieves all books with pagination and optional query and genre filters.
+     * Result pages are served from the {@link BookSearchCache} when possible.
      *
      * @param pageable the pagination information
      * @param queryString the search query to filter books
@@ -114,85 +141,139 @@ public class BookServiceImpl implements BookService {
      */
     @Override
     public Page<BookDto> getAllBook(Pageable pageable, String queryString, String genre) {
+        return bookSearchCache.get(queryString, genre, pageable, () -> {
 
-        // Get the CriteriaBuilder from EntityManager
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-
-        // Create a CriteriaQuery for Book entities
-        CriteriaQuery<Book> query = criteriaBuilder.createQuery(Book.class);
-
-        // Set the root entity for the query
-        Root<Book> root = query.from(Book.class);
-
-        // List to store the conditions for the WHERE clause
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (!queryString.isEmpty()) {
-            // Combined search predicate (OR logic across multiple fields)
-            Predicate searchPredicate = null;
-            for (String field : new String[]{"title", "author", "isbn", "genre"}) {
-                Predicate fieldPredicate = criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get(field)),
-                        "%" + queryString.toLowerCase() + '%');
-                if (searchPredicate == null) {
-                    searchPredicate = fieldPredicate;
-                } else {
-                    searchPredicate = criteriaBuilder.or(searchPredicate, fieldPredicate);
-                }
-            }
-            predicates.add(searchPredicate);
-        }
-
-        if (!genre.isEmpty()) {
-            Predicate genrePredicate = criteriaBuilder.equal(
-                    criteriaBuilder.lower(root.get("genre")),
-                    genre.toLowerCase());
-            predicates.add(genrePredicate);
-        }
-
-        // Apply the conditions to the WHERE clause
-        query.where(predicates.toArray(new Predicate[0]));
-
-        // Add ORDER BY clauses
-        query.orderBy(
-                criteriaBuilder.desc(root.get("updatedAt")) // Then order by createdAt DESC
-        );
+            // Search with the configured engine
+            Page<Book> bookPage = bookSearchEngineResolver.resolve().search(pageable, queryString, genre);
 
-        // Execute the query and retrieve the list of books
-        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+            // Convert the books to DTOs
+            List<BookDto> bookDtoList = bookMapper.toDto(bookPage.getContent());
 
-        // Count total records without pagination
-        int totalCount = typedQuery.getResultList().size();
-        log.debug("Total book count: {}", totalCount);
+            // Create a Page object
+            log.debug("Returning paginated book results.");
 
-        // Apply pagination
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
-
-        List<Book> books = typedQuery.getResultList();
+            return new PageImpl<>(bookDtoList, pageable, bookPage.getTotalElements());
+        });
+    }
 
-        // Convert the books to DTOs
-        List<BookDto> bookDtoList = bookMapper.toDto(books);
+    /**
+     * Retrieves books with cursor pagination and optional query and genre filters, using the configured
+     * search engine.
+     *
+     * @param cursor the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize the number of books per page
+     * @param queryString the search query to filter books
+     * @param genre the genre to filter books
+     * @return a page of books matching the filters and the cursor of the next page
+     */
+    @Override
+    public CursorPage<BookDto> getAllBookByCursor(String cursor, int pageSize, String queryString, String genre) {
+        return bookSearchEngineResolver.resolve().searchByCursor(cursor, pageSize, queryString, genre)
+                .map(bookMapper::toDto);
+    }
 
-        // Create a Page object
-        log.debug("Returning paginated book results.");
+    /**
+     * Counts the books matching the query per genre, using the configured search engine.
+     *
+     * @param queryString the search query to filter books
+     * @return the number of matching books keyed by lower-cased genre, largest first
+     */
+    @Override
+    public Map<String, Long> getBookGenreFacets(String queryString) {
+        return bookSearchEngineResolver.resolve().genreFacets(queryString);
+    }
 
-        return new PageImpl<>(bookDtoList, pageable, totalCount);
+    /**
+     * Suggests book titles and authors with a word starting with the given prefix.
+     *
+     * @param prefix the typed prefix
+     * @param limit the maximum number of suggestions
+     * @return the matching titles and authors, most borrowed first
+     */
+    @Override
+    public List<BookSuggestionResponse> suggestBooks(String prefix, int limit) {
+        return bookSuggestIndex.suggest(prefix, limit);
     }
 
     /**
      * Adds a list of books to the repository.
+     * <p>
+     * Books are imported in chunks of {@value #BULK_CHUNK_SIZE}, each in its own transaction: the ISBNs of a
+     * chunk are checked with one query and the new books are inserted in JDBC batches. A book whose ISBN is
+     * repeated in the list or already taken is reported as a failure instead of aborting the import. If a
+     * chunk still fails to insert, e.g. because a concurrent request took one of its ISBNs, it is split and
+     * retried until the offending books are isolated.
+     * </p>
      *
      * @param bookList the list of books to be added
-     * @return the list of added books
+     * @return the added books and the books that were rejected, by position in the list
      */
     @Override
-    @Transactional
-    public List<Book> addBookBulky(List<Book> bookList) {
-        List<Book> updated = new ArrayList<>();
-        for (Book book : bookList) {
-            updated.add(addBook(book));
+    public BulkImportResult<Book> addBookBulky(List<Book> bookList) {
+        List<Book> created = new ArrayList<>();
+        List<BulkItemFailure> failures = new ArrayList<>();
+
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> seenIsbns = new HashSet<>();
+        for (int i = 0; i < bookList.size(); i++) {
+            if (seenIsbns.add(bookList.get(i).getIsbn())) {
+                candidates.add(i);
+            } else {
+                failures.add(new BulkItemFailure(i, bookList.get(i).getIsbn(), "Duplicate ISBN in request"));
+            }
         }
-        return updated;
+
+        for (int from = 0; from < candidates.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = candidates.subList(from, Math.min(from + BULK_CHUNK_SIZE, candidates.size()));
+            importChunk(bookList, chunk, created, failures);
+        }
+
+        failures.sort(Comparator.comparingInt(BulkItemFailure::index));
+        log.info("Bulk imported {} books, rejected {}", created.size(), failures.size());
+        return new BulkImportResult<>(created, failures);
+    }
+
+    private void importChunk(List<Book> bookList, List<Integer> chunk,
+                             List<Book> created, List<BulkItemFailure> failures) {
+        List<Book> chunkCreated = new ArrayList<>();
+        List<BulkItemFailure> chunkFailures = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> existingIsbns = new HashSet<>(bookRepository.findExistingIsbns(
+                        chunk.stream().map(index -> bookList.get(index).getIsbn()).toList()));
+
+                List<Book> toInsert = new ArrayList<>();
+                for (int index : chunk) {
+                    Book book = bookList.get(index);
+                    if (existingIsbns.contains(book.getIsbn())) {
+                        chunkFailures.add(new BulkItemFailure(index, book.getIsbn(), "Book already present"));
+                    } else {
+                        toInsert.add(book);
+                    }
+                }
+
+                chunkCreated.addAll(bookRepository.saveAllAndFlush(toInsert));
+                chunkCreated.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // The chunk was rolled back, so its books get new IDs when they are retried
+            chunk.forEach(index -> {
+                bookList.get(index).setId(null);
+                bookList.get(index).setVersion(null);
+            });
+            if (chunk.size() == 1) {
+                Book book = bookList.get(chunk.get(0));
+                boolean taken = bookRepository.findByIsbn(book.getIsbn()) != null;
+                failures.add(new BulkItemFailure(chunk.get(0), book.getIsbn(),
+                        taken ? "Book already present" : "Book could not be saved"));
+            } else {
+                int half = chunk.size() / 2;
+                importChunk(bookList, chunk.subList(0, half), created, failures);
+                importChunk(bookList, chunk.subList(half, chunk.size()), created, failures);
+            }
+            return;
+        }
+        created.addAll(chunkCreated);
+        failures.addAll(chunkFailures);
     }
 }
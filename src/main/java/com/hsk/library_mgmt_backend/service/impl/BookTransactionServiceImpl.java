@@ -3,25 +3,31 @@ package com.hsk.library_mgmt_backend.service.impl;
 import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
 import com.hsk.library_mgmt_backend.exception.AlreadyExistingException;
 import com.hsk.library_mgmt_backend.exception.NotFoundException;
+import com.hsk.library_mgmt_backend.exception.ValidationException;
 import com.hsk.library_mgmt_backend.mapper.BookTransactionMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.Book;
 import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransactionHistory;
 import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.query.CriteriaPageExecutor;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
 import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
 import com.hsk.library_mgmt_backend.service.BookService;
 import com.hsk.library_mgmt_backend.service.BookTransactionService;
 import com.hsk.library_mgmt_backend.service.MemberService;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.LoanState;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
 import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionRequest;
 import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionUpdateRequest;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +35,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -41,12 +48,13 @@ import java.util.List;
 public class BookTransactionServiceImpl implements BookTransactionService {
 
     private final BookTransactionRepository bookTransactionRepository;
+    private final BookRepository bookRepository;
     private final BookService bookService;
     private final MemberService memberService;
     private final BookTransactionMapper bookTransactionMapper;
-
-    @PersistenceContext
-    private final EntityManager entityManager;
+    private final CriteriaPageExecutor criteriaPageExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
 
     /**
      * Adds a new book transaction.
@@ -72,6 +80,8 @@ public class BookTransactionServiceImpl implements BookTransactionService {
         existing.setBook(requestedBook);
         existing.setMember(member);
         existing = bookTransactionRepository.save(existing);
+        eventPublisher.publishEvent(new LoanStateChangedEvent(existing.getId(), requestedBook.getId(), member.getId(),
+                LoanState.NONE, LoanState.of(existing)));
 
         return existing;
     }
@@ -83,6 +93,9 @@ public class BookTransactionServiceImpl implements BookTransactionService {
      * @param updateRequest the request containing update details
      * @return the updated book transaction
      * @throws NotFoundException if the book transaction with the given ID is not found
+     * @throws ValidationException if the status change is not allowed or the book is out of stock: only a
+     *                             closed loan can be requested again, a requested one approved, an approved one
+     *                             returned, and a requested or approved one cancelled
      */
     @Override
     @Transactional
@@ -90,36 +103,82 @@ public class BookTransactionServiceImpl implements BookTransactionService {
         BookTransaction bookTransaction = bookTransactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("BookTransaction not found"));
 
-        Book requestedBook = bookTransaction.getBook();
+        LoanState before = LoanState.of(bookTransaction);
+
+        // Only the ID is read, so the lazy book is never loaded with a copy count that goes stale below
+        Long bookId = bookTransaction.getBook().getId();
 
         switch (updateRequest.status()) {
-            case REQUESTED -> bookTransaction.setRequestDate(LocalDate.now());
+            case REQUESTED -> {
+                // A closed loan can be requested again; an open one would take or keep a copy twice
+                if (!isClosed(bookTransaction)) {
+                    throw new ValidationException("Only returned or cancelled books can be requested again");
+                }
+                bookTransaction.setRequestDate(LocalDate.now());
+                bookTransaction.setIssueDate(null);
+                bookTransaction.setDueDate(null);
+                bookTransaction.setReturnDate(null);
+            }
             case APPROVED -> {
+                if (bookTransaction.getStatus() != BookTransaction.Status.REQUESTED) {
+                    throw new ValidationException("Only requested books can be approved");
+                }
+                if (bookRepository.decrementCopiesAvailable(bookId, LocalDateTime.now(), currentAuditor()) == 0) {
+                    throw new ValidationException("Book is out of stock");
+                }
                 bookTransaction.setIssueDate(LocalDate.now());
                 bookTransaction.setDueDate(updateRequest.dueDate());
-                requestedBook.setCopiesAvailable(requestedBook.getCopiesAvailable() - 1);
+                eventPublisher.publishEvent(BookChangedEvent.copiesChanged(bookId));
             }
             case RETURNED -> {
                 if(bookTransaction.getDueDate() == null){
                     throw new NotFoundException("Due date is null");
                 }
+                if (bookTransaction.getStatus() != BookTransaction.Status.APPROVED) {
+                    throw new ValidationException("Only approved books can be returned");
+                }
                 bookTransaction.setReturnDate(updateRequest.returnDate());
-                requestedBook.setCopiesAvailable(requestedBook.getCopiesAvailable() + 1);
+                bookRepository.incrementCopiesAvailable(bookId, LocalDateTime.now(), currentAuditor());
+                eventPublisher.publishEvent(BookChangedEvent.copiesChanged(bookId));
             }
             case CANCELLED -> {
                 if(bookTransaction.getReturnDate() != null){
                     throw new NotFoundException("Book already returned");
                 }
+                if (isClosed(bookTransaction)) {
+                    throw new ValidationException("Only requested or approved books can be cancelled");
+                }
+                // Cancelling an approved loan puts its copy back
+                if (bookTransaction.getStatus() == BookTransaction.Status.APPROVED) {
+                    bookRepository.incrementCopiesAvailable(bookId, LocalDateTime.now(), currentAuditor());
+                    eventPublisher.publishEvent(BookChangedEvent.copiesChanged(bookId));
+                }
             }
         }
 
         bookTransaction.setStatus(updateRequest.status());
         bookTransaction = bookTransactionRepository.saveAndFlush(bookTransaction);
-        bookService.updateBookById(requestedBook.getId(), requestedBook);
+        eventPublisher.publishEvent(new LoanStateChangedEvent(bookTransaction.getId(), bookId,
+                bookTransaction.getMember().getId(), before, LoanState.of(bookTransaction)));
 
         return bookTransaction;
     }
 
+    /**
+     * Whether the loan is over, so it holds no copy and its request is no longer pending.
+     */
+    private static boolean isClosed(BookTransaction bookTransaction) {
+        return bookTransaction.getStatus() == BookTransaction.Status.RETURNED
+                || bookTransaction.getStatus() == BookTransaction.Status.CANCELLED;
+    }
+
+    /**
+     * The auditor written to {@code updatedBy} by the stock UPDATEs, which bypass the auditing listener.
+     */
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElseThrow();
+    }
+
     /**
      * Deletes a book transaction by its ID.
      *
@@ -129,9 +188,11 @@ public class BookTransactionServiceImpl implements BookTransactionService {
     @Override
     @Transactional
     public void deleteBookTransactionById(Long id) {
-        bookTransactionRepository.findById(id)
+        BookTransaction bookTransaction = bookTransactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("BookTransaction not found"));
         bookTransactionRepository.deleteById(id);
+        eventPublisher.publishEvent(new LoanStateChangedEvent(id, bookTransaction.getBook().getId(),
+                bookTransaction.getMember().getId(), LoanState.of(bookTransaction), LoanState.NONE));
     }
 
     /**
@@ -154,20 +215,72 @@ public class BookTransactionServiceImpl implements BookTransactionService {
      * @param queryString the search query to filter transactions by book title or member name
      * @param status the status to filter transactions
      * @param memberId the member ID to filter transactions
+     * @param includeArchived whether closed loans moved to the archive are included
      * @return a page of book transactions matching the filters
      */
     @Override
-    public Page<BookTransactionDto> getAllBookTransaction(Pageable pageable, String queryString, String status, Long memberId) {
+    public Page<BookTransactionDto> getAllBookTransaction(Pageable pageable, String queryString, String status, Long memberId,
+                                                         boolean includeArchived) {
+        if (includeArchived) {
+            Page<BookTransactionHistory> historyPage = criteriaPageExecutor.findPage(BookTransactionHistory.class,
+                    (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString, status, memberId),
+                    pageable, BookTransactionHistory.WITH_BOOK_AND_MEMBER);
+            return new PageImpl<>(bookTransactionMapper.historyToDto(historyPage.getContent()), pageable,
+                    historyPage.getTotalElements());
+        }
 
-        // Get the CriteriaBuilder from EntityManager
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        // Fetch the requested page with its books and members; the total comes from a separate COUNT query
+        Page<BookTransaction> bookTransactionPage = criteriaPageExecutor.findPage(BookTransaction.class,
+                (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString, status, memberId),
+                pageable, BookTransaction.WITH_BOOK_AND_MEMBER);
 
-        // Create a CriteriaQuery for BookTransaction entities
-        CriteriaQuery<BookTransaction> query = criteriaBuilder.createQuery(BookTransaction.class);
+        // Convert the book transactions to DTOs
+        List<BookTransactionDto> bookTransactionDtoList = bookTransactionMapper.toDto(bookTransactionPage.getContent());
 
-        // Set the root entity for the query
-        Root<BookTransaction> root = query.from(BookTransaction.class);
+        // Create a Page object
+        log.debug("Returning paginated bookTransaction results.");
+
+        return new PageImpl<>(bookTransactionDtoList, pageable, bookTransactionPage.getTotalElements());
+    }
 
+    /**
+     * Retrieves book transactions with keyset pagination and optional filters.
+     *
+     * @param cursor the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize the number of book transactions per page
+     * @param queryString the search query to filter transactions by book title or member name
+     * @param status the status to filter transactions
+     * @param memberId the member ID to filter transactions
+     * @param includeArchived whether closed loans moved to the archive are included
+     * @return a page of book transactions matching the filters and the cursor of the next page
+     */
+    @Override
+    public CursorPage<BookTransactionDto> getAllBookTransactionByCursor(String cursor, int pageSize, String queryString,
+                                                                        String status, Long memberId, boolean includeArchived) {
+        if (includeArchived) {
+            return criteriaPageExecutor.findSlice(BookTransactionHistory.class,
+                            (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString, status, memberId),
+                            cursor, pageSize, BookTransactionHistory.WITH_BOOK_AND_MEMBER)
+                    .map(bookTransactionMapper::historyToDto);
+        }
+        return criteriaPageExecutor.findSlice(BookTransaction.class,
+                        (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString, status, memberId),
+                        cursor, pageSize, BookTransaction.WITH_BOOK_AND_MEMBER)
+                .map(bookTransactionMapper::toDto);
+    }
+
+    /**
+     * Builds the WHERE clause conditions for the book transaction search.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param root the book transaction or book transaction history query root
+     * @param queryString the search query to filter transactions by book title or member name
+     * @param status the status to filter transactions
+     * @param memberId the member ID to filter transactions
+     * @return the list of predicates to be combined with AND
+     */
+    private List<Predicate> buildSearchPredicates(CriteriaBuilder criteriaBuilder, Root<?> root,
+                                                  String queryString, String status, Long memberId) {
         // List to store the conditions for the WHERE clause
         List<Predicate> predicates = new ArrayList<>();
 
@@ -196,38 +309,11 @@ public class BookTransactionServiceImpl implements BookTransactionService {
             predicates.add(memberPredicate);
         }
 
-        // Apply the conditions to the WHERE clause
-        query.where(predicates.toArray(new Predicate[0]));
-
-        // Add ORDER BY clauses
-        query.orderBy(
-                criteriaBuilder.desc(root.get("updatedAt")) // Order by updatedAt DESC
-        );
-
-        // Execute the query and retrieve the list of book transactions
-        TypedQuery<BookTransaction> typedQuery = entityManager.createQuery(query);
-
-        // Count total records without pagination
-        int totalCount = typedQuery.getResultList().size();
-        log.debug("Total bookTransaction count: {}", totalCount);
-
-        // Apply pagination
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
-
-        List<BookTransaction> bookTransactions = typedQuery.getResultList();
-
-        // Convert the book transactions to DTOs
-        List<BookTransactionDto> bookTransactionDtoList = bookTransactionMapper.toDto(bookTransactions);
-
-        // Create a Page object
-        log.debug("Returning paginated bookTransaction results.");
-
-        return new PageImpl<>(bookTransactionDtoList, pageable, totalCount);
+        return predicates;
     }
 
     /**
-     * Retrieves all overdue book transactions for a specific member.
+     * Retrieves all overdue book transactions for a specific member, oldest due date first.
      *
      * @param pageable the pagination information
      * @param memberId the member ID to filter transactions
@@ -242,6 +328,6 @@ public class BookTransactionServiceImpl implements BookTransactionService {
             bookTransactionPage = bookTransactionRepository.findOverdueBooksByMember(memberId, pageable);
         }
         List<BookTransactionDto> bookTransactionDtoPage = bookTransactionMapper.toDto(bookTransactionPage.getContent());
-        return new PageImpl<>(bookTransactionDtoPage, pageable, bookTransactionDtoPage.size());
+        return new PageImpl<>(bookTransactionDtoPage, pageable, bookTransactionPage.getTotalElements());
     }
 }
@@ -1,52 +1,138 @@
 package com.hsk.library_mgmt_backend.service.impl;
 
-import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsk.library_mgmt_backend.persistent.entity.CirculationStat.Counter;
+import com.hsk.library_mgmt_backend.persistent.projection.AdminDashboardCounts;
 import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
-import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
 import com.hsk.library_mgmt_backend.response.AdminDashboardCountResponse;
 import com.hsk.library_mgmt_backend.response.MemberDashboardCountResponse;
 import com.hsk.library_mgmt_backend.service.DashboardService;
-import lombok.RequiredArgsConstructor;
+import com.hsk.library_mgmt_backend.service.circulation.CirculationCounters;
+import com.hsk.library_mgmt_backend.service.circulation.MemberCirculationSummaries;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Service implementation for retrieving dashboard counts for admin and members.
  */
 @Service
-@RequiredArgsConstructor
 public class DashboardServiceImpl implements DashboardService {
 
+    private static final String ADMIN_DASHBOARD_KEY = "admin";
+
     private final BookTransactionRepository bookTransactionRepository;
-    private final BookRepository bookRepository;
-    private final MemberRepository memberRepository;
+    private final CirculationCounters circulationCounters;
+    private final MemberCirculationSummaries memberCirculationSummaries;
+    private final boolean useCounters;
+    private final Cache<String, AdminDashboardCountResponse> adminDashboardCache;
+    private final Timer adminDashboardTimer;
+
+    public DashboardServiceImpl(BookTransactionRepository bookTransactionRepository,
+                                CirculationCounters circulationCounters,
+                                MemberCirculationSummaries memberCirculationSummaries,
+                                MeterRegistry meterRegistry,
+                                @Value("${library.dashboard.source:COUNTERS}") DashboardSource source,
+                                @Value("${library.dashboard.cache.ttl:5s}") Duration ttl) {
+        this.bookTransactionRepository = bookTransactionRepository;
+        this.circulationCounters = circulationCounters;
+        this.memberCirculationSummaries = memberCirculationSummaries;
+        this.useCounters = source == DashboardSource.COUNTERS;
+        this.adminDashboardCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.adminDashboardTimer = Timer.builder("library.dashboard.admin.compute")
+                .description("Time to compute the admin dashboard counts from the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, adminDashboardCache, "admin-dashboard");
+    }
 
     /**
      * Retrieves dashboard counts for the admin.
+     * <p>
+     * With {@code library.dashboard.source=COUNTERS} the counts are read from the incrementally maintained
+     * {@link CirculationCounters}. With {@code QUERY} they are computed by a single aggregate query and cached
+     * for {@code library.dashboard.cache.ttl}; concurrent requests on an expired entry wait for one computation
+     * instead of each running the query.
+     * </p>
      *
      * @return an instance of {@link AdminDashboardCountResponse} containing total counts for books, borrowed books, overdue books, requested books, and members.
      */
     @Override
     public AdminDashboardCountResponse getAdminDashboardCount() {
-        long totalBooks = bookRepository.countTotalBooks();
-        long totalBorrowedBooks = bookTransactionRepository.countBorrowedBooks();
-        long totalOverdueBooks = bookTransactionRepository.countOverdueBooks();
-        long totalRequestedBooks = bookTransactionRepository.countRequestedBooks();
-        long totalMembers = memberRepository.countTotalMembers();
-        return new AdminDashboardCountResponse(totalBooks, totalBorrowedBooks, totalOverdueBooks, totalRequestedBooks, totalMembers);
+        if (useCounters) {
+            Map<Counter, Long> counters = circulationCounters.getAll();
+            return new AdminDashboardCountResponse(counters.get(Counter.BOOKS), counters.get(Counter.BORROWED),
+                    counters.get(Counter.OVERDUE), counters.get(Counter.REQUESTED), counters.get(Counter.MEMBERS));
+        }
+        return adminDashboardCache.get(ADMIN_DASHBOARD_KEY, key -> adminDashboardTimer.record(this::computeAdminDashboardCount));
+    }
+
+    /**
+     * Computes the admin dashboard counts without the cached entry, which is replaced with the result.
+     * With {@code library.dashboard.source=COUNTERS} this is the same as {@link #getAdminDashboardCount()}.
+     *
+     * @return an instance of {@link AdminDashboardCountResponse} with the current counts
+     */
+    @Override
+    public AdminDashboardCountResponse refreshAdminDashboardCount() {
+        if (useCounters) {
+            return getAdminDashboardCount();
+        }
+        AdminDashboardCountResponse counts = adminDashboardTimer.record(this::computeAdminDashboardCount);
+        adminDashboardCache.put(ADMIN_DASHBOARD_KEY, counts);
+        return counts;
     }
 
     /**
      * Retrieves dashboard counts for a specific member.
+     * <p>
+     * With {@code library.dashboard.source=COUNTERS} the counts come from the cached
+     * {@link MemberCirculationSummaries} read model; with {@code QUERY} they are counted from the member's transactions.
+     * </p>
      *
      * @param memberId the ID of the member for whom the counts are to be retrieved
      * @return an instance of {@link MemberDashboardCountResponse} containing counts for books, borrowed books, overdue books, and requested books for the specified member.
      */
     @Override
     public MemberDashboardCountResponse getMemberDashboardCount(Long memberId) {
+        if (useCounters) {
+            return memberCirculationSummaries.get(memberId);
+        }
         long totalBooks = bookTransactionRepository.countBooksWithMember(memberId);
         long totalBorrowedBooks = bookTransactionRepository.countBorrowedBooksWithMember(memberId);
         long totalOverdueBooks = bookTransactionRepository.countOverdueBooksWithMember(memberId);
         long totalRequestedBooks = bookTransactionRepository.countRequestedBooksWithMember(memberId);
         return new MemberDashboardCountResponse(totalBooks, totalRequestedBooks, totalBorrowedBooks, totalOverdueBooks);
     }
+
+    private AdminDashboardCountResponse computeAdminDashboardCount() {
+        AdminDashboardCounts counts = bookTransactionRepository.countAdminDashboard();
+        return new AdminDashboardCountResponse(counts.getTotalBooks(), counts.getTotalBorrowedBooks(),
+                counts.getTotalOverdueBooks(), counts.getTotalRequestedBooks(), counts.getTotalMembers());
+    }
+
+    /**
+     * Where the admin dashboard counts come from, selected with {@code library.dashboard.source}.
+     */
+    public enum DashboardSource {
+        /**
+         * Incrementally maintained circulation counters.
+         */
+        COUNTERS,
+
+        /**
+         * A cached aggregate query over the source tables.
+         */
+        QUERY
+    }
 }
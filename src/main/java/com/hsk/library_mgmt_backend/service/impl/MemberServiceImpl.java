@@ -6,21 +6,21 @@ import com.hsk.library_mgmt_backend.exception.AlreadyExistingException;
 import com.hsk.library_mgmt_backend.exception.NotFoundException;
 import com.hsk.library_mgmt_backend.mapper.MemberMapper;
 import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.query.CriteriaPageExecutor;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
 import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
 import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponseUtil;
 import com.hsk.library_mgmt_backend.service.MemberService;
+import com.hsk.library_mgmt_backend.service.event.MemberChangedEvent;
 import com.hsk.library_mgmt_backend.web.v1.payload.member.MemberRequest;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -46,9 +46,8 @@ public class MemberServiceImpl implements MemberService {
     private final BookTransactionRepository bookTransactionRepository;
     private final JWTService jwtService;
     private final MemberMapper memberMapper;
-
-    @PersistenceContext
-    private final EntityManager entityManager;
+    private final CriteriaPageExecutor criteriaPageExecutor;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Adds a new member to the system.
@@ -69,6 +68,7 @@ public class MemberServiceImpl implements MemberService {
         existing.setPassword(passwordEncoder.encode(member.password()));
         existing.setRole(member.role());
         existing = memberRepository.save(existing);
+        eventPublisher.publishEvent(MemberChangedEvent.created(existing.getId(), existing.getEmail()));
 //        Map<String, Object> claims = new HashMap<>();
 //        claims.put("name", existing.getName());
 //        claims.put("id", existing.getId());
@@ -103,13 +103,16 @@ public class MemberServiceImpl implements MemberService {
     public Member updateMemberById(Long id, MemberRequest member) {
         Member toBeUpdatedMember = memberRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Member not found"));
+        String previousEmail = toBeUpdatedMember.getEmail();
         toBeUpdatedMember.setName(member.name());
         toBeUpdatedMember.setEmail(member.email());
         toBeUpdatedMember.setPhone(member.phone());
         toBeUpdatedMember.setPassword(passwordEncoder.encode(member.password()));
         toBeUpdatedMember.setRole(member.role());
 
-        return memberRepository.saveAndFlush(toBeUpdatedMember);
+        Member updated = memberRepository.saveAndFlush(toBeUpdatedMember);
+        eventPublisher.publishEvent(MemberChangedEvent.updated(id, previousEmail, updated.getEmail()));
+        return updated;
     }
 
     /**
@@ -122,10 +125,12 @@ public class MemberServiceImpl implements MemberService {
     @Transactional
     public void deleteMemberById(Long id) {
         bookTransactionRepository.deleteByMemberId(id);
+        bookTransactionRepository.deleteArchivedByMemberId(id);
 
-        memberRepository.findById(id)
+        Member member = memberRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Member not found"));
         memberRepository.deleteById(id);
+        eventPublisher.publishEvent(MemberChangedEvent.deleted(id, member.getEmail()));
     }
 
     /**
@@ -151,15 +156,45 @@ public class MemberServiceImpl implements MemberService {
     @Override
     public Page<MemberDto> getAllMember(Pageable pageable, String queryString) {
 
-        // Get the CriteriaBuilder from EntityManager
-        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        // Fetch the requested page; the total comes from a separate COUNT query
+        Page<Member> memberPage = criteriaPageExecutor.findPage(Member.class,
+                (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString),
+                pageable);
+
+        // Convert the members to DTOs
+        List<MemberDto> memberDtoList = memberMapper.toDto(memberPage.getContent());
 
-        // Create a CriteriaQuery for Member entities
-        CriteriaQuery<Member> query = criteriaBuilder.createQuery(Member.class);
+        // Create a Page object
+        log.debug("Returning paginated member results.");
+
+        return new PageImpl<>(memberDtoList, pageable, memberPage.getTotalElements());
+    }
 
-        // Set the root entity for the query
-        Root<Member> root = query.from(Member.class);
+    /**
+     * Retrieves members with keyset pagination and search functionality.
+     *
+     * @param cursor      the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize    the number of members per page
+     * @param queryString the search query to filter members
+     * @return a {@link CursorPage} of {@link MemberDto} matching the search criteria
+     */
+    @Override
+    public CursorPage<MemberDto> getAllMemberByCursor(String cursor, int pageSize, String queryString) {
+        return criteriaPageExecutor.findSlice(Member.class,
+                        (criteriaBuilder, root) -> buildSearchPredicates(criteriaBuilder, root, queryString),
+                        cursor, pageSize)
+                .map(memberMapper::toDto);
+    }
 
+    /**
+     * Builds the WHERE clause conditions for the member search.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param root            the member query root
+     * @param queryString     the search query to filter members
+     * @return the list of predicates to be combined with AND
+     */
+    private List<Predicate> buildSearchPredicates(CriteriaBuilder criteriaBuilder, Root<Member> root, String queryString) {
         // List to store the conditions for the WHERE clause
         List<Predicate> predicates = new ArrayList<>();
 
@@ -177,33 +212,6 @@ public class MemberServiceImpl implements MemberService {
         }
         predicates.add(searchPredicate);
 
-        // Apply the conditions to the WHERE clause
-        query.where(predicates.toArray(new Predicate[0]));
-
-        // Add ORDER BY clauses
-        query.orderBy(
-                criteriaBuilder.desc(root.get("updatedAt")) // Then order by createdAt DESC
-        );
-
-        // Execute the query and retrieve the list of members
-        TypedQuery<Member> typedQuery = entityManager.createQuery(query);
-
-        // Count total records without pagination
-        int totalCount = typedQuery.getResultList().size();
-        log.debug("Total member count: {}", totalCount);
-
-        // Apply pagination
-        typedQuery.setFirstResult((int) pageable.getOffset());
-        typedQuery.setMaxResults(pageable.getPageSize());
-
-        List<Member> members = typedQuery.getResultList();
-
-        // Convert the members to DTOs
-        List<MemberDto> memberDtoList = memberMapper.toDto(members);
-
-        // Create a Page object
-        log.debug("Returning paginated member results.");
-
-        return new PageImpl<>(memberDtoList, pageable, totalCount);
+        return predicates;
     }
 }
@@ -0,0 +1,67 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.mapper.BookMapper;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.service.BookService;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Validates a batch of book requests against the {@link BookRequest} constraints and adds the valid
+ * ones through {@link BookService#addBookBulky}. Missing and invalid books are reported with the books the
+ * service rejects, by their position in the batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookBatchImporter {
+
+    private final BookService bookService;
+    private final BookMapper bookMapper;
+    private final Validator validator;
+
+    /**
+     * @param bookRequests the books to add
+     * @return the added books and the rejected ones, by position in {@code bookRequests}
+     */
+    public BulkImportResult<Book> importBatch(List<BookRequest> bookRequests) {
+        List<BulkItemFailure> failures = new ArrayList<>();
+        List<Book> books = new ArrayList<>(bookRequests.size());
+        List<Integer> positions = new ArrayList<>(bookRequests.size());
+        for (int i = 0; i < bookRequests.size(); i++) {
+            BookRequest bookRequest = bookRequests.get(i);
+            if (bookRequest == null) {
+                failures.add(new BulkItemFailure(i, null, "Book is mandatory"));
+                continue;
+            }
+            Set<ConstraintViolation<BookRequest>> violations = validator.validate(bookRequest);
+            if (violations.isEmpty()) {
+                books.add(bookMapper.toEntity(bookRequest));
+                positions.add(i);
+            } else {
+                failures.add(new BulkItemFailure(i, bookRequest.isbn(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            }
+        }
+
+        BulkImportResult<Book> result = books.isEmpty()
+                ? new BulkImportResult<>(List.of(), List.of())
+                : bookService.addBookBulky(books);
+        result.failures().forEach(failure -> failures.add(
+                new BulkItemFailure(positions.get(failure.index()), failure.key(), failure.message())));
+        failures.sort(Comparator.comparingInt(BulkItemFailure::index));
+        return new BulkImportResult<>(result.created(), failures);
+    }
+}
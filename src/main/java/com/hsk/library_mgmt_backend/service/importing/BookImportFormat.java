@@ -0,0 +1,45 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+import org.springframework.http.MediaType;
+
+/**
+ * Formats accepted by the streaming catalog import.
+ */
+public enum BookImportFormat {
+    /**
+     * Comma-separated values with a header row naming the {@code BookRequest} fields.
+     */
+    CSV("text/csv"),
+    /**
+     * One {@code BookRequest} JSON object per line.
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    BookImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param contentType the Content-Type of the import request
+     * @return the matching format
+     * @throws ValidationException if the content type is not CSV or NDJSON
+     */
+    public static BookImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType requested = MediaType.parseMediaType(contentType);
+            for (BookImportFormat format : values()) {
+                if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(requested)) {
+                    return format;
+                }
+            }
+        }
+        throw new ValidationException("Import content type must be text/csv or application/x-ndjson");
+    }
+}
@@ -0,0 +1,120 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one streaming catalog import, updated by the import thread and read by progress requests.
+ * Only the first failures are kept, so a large import with many bad records still uses bounded memory.
+ */
+public class BookImportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String id;
+    private final BookImportFormat format;
+    private final int maxReportedFailures;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong recordsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<BulkItemFailure> failures = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    BookImportJob(String id, BookImportFormat format, int maxReportedFailures) {
+        this.id = id;
+        this.format = format;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void recordRead() {
+        recordsRead.incrementAndGet();
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void rejected(BulkItemFailure failure) {
+        rejected.incrementAndGet();
+        synchronized (failures) {
+            if (failures.size() < maxReportedFailures) {
+                failures.add(failure);
+            }
+        }
+    }
+
+    void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public BookImportFormat getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the first rejected records, by position in the input
+     */
+    public List<BulkItemFailure> getFailures() {
+        synchronized (failures) {
+            return List.copyOf(failures);
+        }
+    }
+
+    /**
+     * @return why the import stopped, if it failed
+     */
+    public String getError() {
+        return error;
+    }
+}
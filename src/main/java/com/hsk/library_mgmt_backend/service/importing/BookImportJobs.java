@@ -0,0 +1,235 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.exception.NotFoundException;
+import com.hsk.library_mgmt_backend.exception.ParsingException;
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs streaming catalog imports in the background and keeps their progress.
+ * <p>
+ * The request body is copied to a temporary file as it arrives, up to {@code library.book-import.max-bytes},
+ * then read back one record at a time
+ * by a {@link BookRecordReader} and imported in chunks of {@code library.book-import.chunk-size}
+ * through {@link BookBatchImporter}, each chunk in its own transactions. Memory use is bounded by the
+ * chunk size whatever the size of the input; the spooled input takes up to the same disk space. Jobs are
+ * kept for {@code library.book-import.retention} after they were started, at most
+ * {@code library.book-import.max-jobs} of them, and run on {@code library.book-import.threads} threads.
+ * Jobs still queued at shutdown are marked failed and their input deleted.
+ * </p>
+ */
+@Slf4j
+@Component
+public class BookImportJobs {
+
+    private final BookBatchImporter bookBatchImporter;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+    private final DataSize maxBytes;
+    private final Cache<String, BookImportJob> jobs;
+    private final ExecutorService executor;
+
+    public BookImportJobs(BookBatchImporter bookBatchImporter,
+                          ObjectMapper objectMapper,
+                          @Value("${library.book-import.chunk-size:500}") int chunkSize,
+                          @Value("${library.book-import.max-reported-failures:1000}") int maxReportedFailures,
+                          @Value("${library.book-import.retention:24h}") Duration retention,
+                          @Value("${library.book-import.threads:2}") int threads,
+                          @Value("${library.book-import.max-bytes:2GB}") DataSize maxBytes,
+                          @Value("${library.book-import.max-jobs:1000}") long maxJobs) {
+        this.bookBatchImporter = bookBatchImporter;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+        this.maxBytes = maxBytes;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(maxJobs)
+                .expireAfterWrite(retention)
+                .build();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "book-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Receives the input of an import and queues it.
+     *
+     * @param body   the CSV or NDJSON input
+     * @param format the format of the input
+     * @return the queued job
+     * @throws IOException         if the input cannot be received
+     * @throws ValidationException if the input is larger than {@code library.book-import.max-bytes}
+     */
+    public BookImportJob start(InputStream body, BookImportFormat format) throws IOException {
+        Path spool = Files.createTempFile("book-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            spool(body, spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        BookImportJob job = new BookImportJob(UUID.randomUUID().toString(), format, maxReportedFailures);
+        jobs.put(job.getId(), job);
+        executor.execute(new ImportTask(job, spool));
+        log.info("Queued {} book import {} ({} bytes)", format, job.getId(), Files.size(spool));
+        return job;
+    }
+
+    /**
+     * @param id the ID of the job
+     * @return the job with its current progress
+     * @throws NotFoundException if there is no such job, or it has expired
+     */
+    public BookImportJob get(String id) {
+        BookImportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new NotFoundException("Import job not found");
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            if (queued instanceof ImportTask task) {
+                task.job.failed("The application stopped before the import started");
+                deleteSpool(task.spool);
+            }
+        }
+    }
+
+    private void spool(InputStream body, Path spool) throws IOException {
+        long limit = maxBytes.toBytes();
+        long total = 0;
+        byte[] buffer = new byte[8192];
+        try (OutputStream out = Files.newOutputStream(spool)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > limit) {
+                    throw new ValidationException("Import input must not be larger than " + maxBytes.toMegabytes() + " MB");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private void run(BookImportJob job, Path spool) {
+        job.started();
+        try (BookRecordReader reader = open(job.getFormat(), spool)) {
+            List<BookRequest> chunk = new ArrayList<>(chunkSize);
+            List<Integer> positions = new ArrayList<>(chunkSize);
+            for (int position = 0; ; position++) {
+                BookRequest bookRequest;
+                try {
+                    bookRequest = reader.next();
+                } catch (ParsingException e) {
+                    job.recordRead();
+                    job.rejected(new BulkItemFailure(position, null, e.getMessage()));
+                    continue;
+                }
+                if (bookRequest == null) {
+                    break;
+                }
+                job.recordRead();
+                chunk.add(bookRequest);
+                positions.add(position);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, positions);
+                }
+            }
+            importChunk(job, chunk, positions);
+            job.completed();
+            log.info("Book import {} completed: {} imported, {} rejected",
+                    job.getId(), job.getImported(), job.getRejected());
+        } catch (IOException | RuntimeException e) {
+            job.failed(e.getMessage());
+            log.error("Book import {} failed after {} records", job.getId(), job.getRecordsRead(), e);
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    private void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Could not delete book import input {}", spool, e);
+        }
+    }
+
+    private void importChunk(BookImportJob job, List<BookRequest> chunk, List<Integer> positions) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        BulkImportResult<Book> result = bookBatchImporter.importBatch(chunk);
+        job.imported(result.created().size());
+        result.failures().forEach(failure -> job.rejected(
+                new BulkItemFailure(positions.get(failure.index()), failure.key(), failure.message())));
+        chunk.clear();
+        positions.clear();
+    }
+
+    private BookRecordReader open(BookImportFormat format, Path spool) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8);
+        try {
+            return switch (format) {
+                case CSV -> new CsvBookRecordReader(reader);
+                case NDJSON -> new NdjsonBookRecordReader(reader, objectMapper);
+            };
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * A queued import; lets {@link #shutdown()} find the jobs that never started.
+     */
+    private final class ImportTask implements Runnable {
+        private final BookImportJob job;
+        private final Path spool;
+
+        ImportTask(BookImportJob job, Path spool) {
+            this.job = job;
+            this.spool = spool;
+        }
+
+        @Override
+        public void run() {
+            BookImportJobs.this.run(job, spool);
+        }
+    }
+}
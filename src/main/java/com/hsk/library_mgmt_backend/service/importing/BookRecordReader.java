@@ -0,0 +1,37 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the books of an import one record at a time, so the input is never held in memory.
+ */
+interface BookRecordReader extends Closeable {
+
+    /**
+     * Reads the next record.
+     *
+     * @return the next book, or null at the end of the input
+     * @throws com.hsk.library_mgmt_backend.exception.ParsingException if the record cannot be read as a book;
+     *                                                                 the reader moves on to the next record
+     * @throws IOException                                             if the input cannot be read, or is
+     *                                                                 malformed past recovery
+     */
+    BookRequest next() throws IOException;
+
+    /**
+     * Skips the byte order mark Excel and other Windows tools write at the start of UTF-8 exports.
+     *
+     * @param reader the input, before anything was read from it
+     * @throws IOException if the input cannot be read
+     */
+    static void skipByteOrderMark(BufferedReader reader) throws IOException {
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.exception.ParsingException;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads books from CSV (RFC 4180: quoted fields may contain commas, doubled quotes and line breaks).
+ * <p>
+ * The first row names the columns, matched case-insensitively to the {@link BookRequest} fields:
+ * {@code title, author, isbn, genre, publicationDate, copiesAvailable}. Other columns are ignored, empty
+ * fields are read as missing and dates are ISO {@code yyyy-MM-dd}. A leading byte order mark is skipped.
+ * </p>
+ */
+class CsvBookRecordReader implements BookRecordReader {
+
+    private static final List<String> COLUMNS =
+            List.of("title", "author", "isbn", "genre", "publicationdate", "copiesavailable");
+
+    /**
+     * Longest field accepted, so an unterminated quote cannot make a single field consume the input.
+     */
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+    CsvBookRecordReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        BookRecordReader.skipByteOrderMark(reader);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IOException("The CSV input is empty");
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columnIndexes.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = COLUMNS.stream().filter(column -> !columnIndexes.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IOException("The CSV header is missing the columns " + missing);
+        }
+    }
+
+    @Override
+    public BookRequest next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        String publicationDate = field(fields, "publicationdate");
+        String copiesAvailable = field(fields, "copiesavailable");
+        try {
+            return new BookRequest(
+                    field(fields, "title"),
+                    field(fields, "author"),
+                    field(fields, "isbn"),
+                    field(fields, "genre"),
+                    publicationDate == null ? null : LocalDate.parse(publicationDate),
+                    copiesAvailable == null ? null : Integer.valueOf(copiesAvailable));
+        } catch (DateTimeParseException e) {
+            throw new ParsingException("Invalid publication date " + publicationDate);
+        } catch (NumberFormatException e) {
+            throw new ParsingException("Invalid copies available " + copiesAvailable);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String field(List<String> fields, String column) {
+        int index = columnIndexes.get(column);
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IOException("A CSV field is longer than " + MAX_FIELD_LENGTH + " characters, is a quote unterminated?");
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
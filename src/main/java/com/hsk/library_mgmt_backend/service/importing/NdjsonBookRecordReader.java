@@ -0,0 +1,47 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hsk.library_mgmt_backend.exception.ParsingException;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one {@link BookRequest} JSON object per line, skipping blank lines and a leading byte order mark.
+ */
+class NdjsonBookRecordReader implements BookRecordReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader bookReader;
+
+    NdjsonBookRecordReader(BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader;
+        BookRecordReader.skipByteOrderMark(reader);
+        this.bookReader = objectMapper.readerFor(BookRequest.class);
+    }
+
+    @Override
+    public BookRequest next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        try {
+            return bookReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new ParsingException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
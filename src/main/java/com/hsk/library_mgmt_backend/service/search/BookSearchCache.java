@@ -0,0 +1,211 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of book search result pages.
+ * <p>
+ * Entries are weighed by the number of books they hold and expire after {@code library.search.cache.ttl}.
+ * Every {@link BookChangedEvent} that can change which books match bumps a generation that is part of the
+ * cache key, so entries cached before a write are never served after it. The generation is bumped both when
+ * the write happens and when its transaction completes, and the cache is bypassed in between: a read racing
+ * the commit neither serves nor stores a page from before the write. The indexes apply committed changes in
+ * {@link #INDEX_UPDATE_ORDER}, ahead of the cache's completion callback, so the cache only reopens once
+ * they serve the change.
+ * </p>
+ * <p>
+ * A change of a book's available copies (every loan approval and return) does not change which books match,
+ * only what the pages holding that book show. It evicts just those pages when its transaction completes, and
+ * only reads of pages holding the book bypass the cache in between. Books are tracked in
+ * {@value #COPY_SLOTS} hashed slots, so a collision at worst bypasses a page needlessly.
+ * </p>
+ */
+@Slf4j
+@Component
+public class BookSearchCache {
+
+    /**
+     * Order of the listeners that apply committed book changes to the search indexes; they run before
+     * the cache reopens.
+     */
+    public static final int INDEX_UPDATE_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    private static final int COPY_SLOTS = 1024;
+
+    private final Cache<Key, Page<BookDto>> cache;
+    private final boolean enabled;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+    // Copy changes in flight per book slot, and the copy change count at which a slot last completed one
+    private final AtomicIntegerArray copiesChanging = new AtomicIntegerArray(COPY_SLOTS);
+    private final AtomicLongArray copiesChangedAt = new AtomicLongArray(COPY_SLOTS);
+    private final AtomicLong copyChanges = new AtomicLong();
+
+    public BookSearchCache(MeterRegistry meterRegistry,
+                           @Value("${library.search.cache.enabled:true}") boolean enabled,
+                           @Value("${library.search.cache.max-books:10000}") long maxBooks,
+                           @Value("${library.search.cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBooks)
+                .weigher((Key key, Page<BookDto> page) -> page.getNumberOfElements() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "book-search");
+    }
+
+    /**
+     * Returns the cached page for the search, loading and caching it on a miss.
+     *
+     * @param queryString the search query to filter books
+     * @param genre       the genre to filter books
+     * @param pageable    the pagination information
+     * @param loader      runs the search on a miss
+     * @return the page of books
+     */
+    public Page<BookDto> get(String queryString, String genre, Pageable pageable, Supplier<Page<BookDto>> loader) {
+        if (!enabled || writesInFlight.get() > 0) {
+            return loader.get();
+        }
+
+        long loadGeneration = generation.get();
+        long loadCopyChanges = copyChanges.get();
+        Key key = new Key(queryString, genre, pageable.getPageNumber(), pageable.getPageSize(), loadGeneration);
+        Page<BookDto> page = cache.getIfPresent(key);
+        if (page != null && !hasCopiesChanging(page)) {
+            return page;
+        }
+
+        page = loader.get();
+        // Do not store a page loaded while a write started or completed
+        if (writesInFlight.get() == 0 && generation.get() == loadGeneration && !hasCopiesChanging(page)) {
+            cache.put(key, page);
+            // Checked after storing: a copy change completing from here on evicts the page itself
+            if (copiesChangedSince(page, loadCopyChanges)) {
+                cache.invalidate(key);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Invalidates the cached pages on every book write, or only the pages holding the book when just its
+     * available copies changed.
+     *
+     * @param event the book change
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.isCopiesChanged()) {
+            onCopiesChanged(event.bookId());
+            return;
+        }
+
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Published outside a transaction: the write is already committed
+            cache.invalidateAll();
+            return;
+        }
+
+        writesInFlight.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                // After the index listeners, which run in INDEX_UPDATE_ORDER
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                generation.incrementAndGet();
+                writesInFlight.decrementAndGet();
+                cache.invalidateAll();
+            }
+        });
+    }
+
+    private void onCopiesChanged(Long bookId) {
+        int slot = slot(bookId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            copiesCommitted(bookId, slot);
+            return;
+        }
+
+        copiesChanging.incrementAndGet(slot);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                copiesCommitted(bookId, slot);
+                copiesChanging.decrementAndGet(slot);
+            }
+        });
+    }
+
+    private void copiesCommitted(Long bookId, int slot) {
+        // Recorded before evicting, so a page stored meanwhile is either evicted here or sees the record
+        copiesChangedAt.set(slot, copyChanges.incrementAndGet());
+        cache.asMap().values().removeIf(page -> contains(page, bookId));
+    }
+
+    private boolean hasCopiesChanging(Page<BookDto> page) {
+        for (BookDto book : page) {
+            if (copiesChanging.get(slot(book.id())) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean copiesChangedSince(Page<BookDto> page, long since) {
+        if (copyChanges.get() == since) {
+            return false;
+        }
+        for (BookDto book : page) {
+            if (copiesChangedAt.get(slot(book.id())) > since) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(Page<BookDto> page, Long bookId) {
+        for (BookDto book : page) {
+            if (bookId.equals(book.id())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int slot(Long bookId) {
+        return Math.floorMod(Long.hashCode(bookId), COPY_SLOTS);
+    }
+
+    private record Key(String queryString, String genre, int pageNumber, int pageSize, long generation) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+
+/**
+ * A backend answering the book catalog search.
+ */
+public interface BookSearchEngine {
+
+    /**
+     * @return the mode this engine implements
+     */
+    BookSearchMode mode();
+
+    /**
+     * Searches books matching the query and genre.
+     *
+     * @param pageable    the pagination information
+     * @param queryString the free-text query, empty to match every book
+     * @param genre       the genre to filter books, empty for all genres
+     * @return a page of matching books
+     */
+    Page<Book> search(Pageable pageable, String queryString, String genre);
+
+    /**
+     * Searches the page of books following the cursor, matched and ordered as by {@link #search}.
+     *
+     * @param cursor      the cursor returned with the previous page, or null/empty for the first page
+     * @param pageSize    the number of books per page
+     * @param queryString the free-text query, empty to match every book
+     * @param genre       the genre to filter books, empty for all genres
+     * @return the page of matching books and the cursor of the next page
+     */
+    CursorPage<Book> searchByCursor(String cursor, int pageSize, String queryString, String genre);
+
+    /**
+     * Counts the books matching the query per genre. The genre filter of the search itself is not
+     * applied, so every genre the query reaches is listed.
+     *
+     * @param queryString the free-text query, empty to match every book
+     * @return the counts keyed by lower-cased genre, largest first
+     */
+    Map<String, Long> genreFacets(String queryString);
+}
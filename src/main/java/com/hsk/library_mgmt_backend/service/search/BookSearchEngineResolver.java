@@ -0,0 +1,34 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the {@link BookSearchEngine} configured with {@code library.search.mode}.
+ */
+@Component
+public class BookSearchEngineResolver {
+
+    private final Map<BookSearchMode, BookSearchEngine> engines = new EnumMap<>(BookSearchMode.class);
+    private final BookSearchMode mode;
+
+    public BookSearchEngineResolver(List<BookSearchEngine> engines,
+                                    @Value("${library.search.mode:LIKE}") BookSearchMode mode) {
+        engines.forEach(engine -> this.engines.put(engine.mode(), engine));
+        if (!this.engines.containsKey(mode)) {
+            throw new IllegalStateException("No book search engine available for mode " + mode);
+        }
+        this.mode = mode;
+    }
+
+    /**
+     * @return the engine for the configured search mode
+     */
+    public BookSearchEngine resolve() {
+        return engines.get(mode);
+    }
+}
@@ -0,0 +1,21 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+/**
+ * Backends available for the book catalog search, selected with {@code library.search.mode}.
+ */
+public enum BookSearchMode {
+    /**
+     * Case-insensitive substring match over title, author, ISBN and genre.
+     */
+    LIKE,
+
+    /**
+     * PostgreSQL full-text and trigram search ranked by relevance.
+     */
+    FULL_TEXT,
+
+    /**
+     * In-process inverted index, hydrating only the requested page from the database.
+     */
+    MEMORY
+}
@@ -0,0 +1,287 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.persistent.projection.BookLoanCount;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sorted prefix index over normalized book titles and authors used for typeahead suggestions.
+ * <p>
+ * Every word start of the lower-cased, whitespace-collapsed text is a key, so a prefix also matches a later
+ * title word or an author's surname, and a completion lookup is a single ordered range scan. Each title and
+ * author is reference counted because several books can share it, and weighted by the loans of those books.
+ * A lookup reads up to {@code library.search.suggest.max-candidates} matching keys and returns the most
+ * borrowed texts among them. The index is built once the application is ready and kept current from
+ * {@link BookChangedEvent}s and {@link LoanStateChangedEvent}s after each commit; until then no
+ * suggestions are returned. Loans committed while the index is built may be counted twice; the weights
+ * only order the suggestions.
+ * </p>
+ */
+@Slf4j
+@Component
+public class BookSuggestIndex {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final String TITLE = "title";
+    private static final String AUTHOR = "author";
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::weight).reversed()
+            .thenComparing(Entry::normalized)
+            .thenComparing(Entry::field);
+
+    private final BookRepository bookRepository;
+    private final BookTransactionRepository bookTransactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxCandidates;
+
+    // Word start key -> title or author key, and title or author key -> entry
+    private final ConcurrentSkipListMap<String, String> words = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Only changed by the build, then by the listeners holding the pendingEvents lock
+    private final Map<Long, IndexedBook> books = new HashMap<>();
+    private final List<Object> pendingEvents = new ArrayList<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    public BookSuggestIndex(BookRepository bookRepository,
+                            BookTransactionRepository bookTransactionRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${library.search.suggest.max-candidates:1000}") int maxCandidates) {
+        this.bookRepository = bookRepository;
+        this.bookTransactionRepository = bookTransactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Builds the index from a streamed scan of the book table and the loan counts.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (pendingEvents) {
+            building = true;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Long> loans = new HashMap<>();
+            try (Stream<BookLoanCount> counts = bookTransactionRepository.streamLoanCounts()) {
+                counts.forEach(count -> loans.put(count.getBookId(), count.getLoans()));
+            }
+            try (Stream<BookSearchDocument> documents = bookRepository.streamSearchDocuments()) {
+                documents.forEach(document -> put(document, loans.getOrDefault(document.id(), 0L)));
+            }
+        });
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            building = false;
+        }
+        ready = true;
+        log.info("Book suggest index built with {} entries", entries.size());
+    }
+
+    /**
+     * Applies a committed book change to the index, before the {@link BookSearchCache} reopens.
+     *
+     * @param event the book change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(BookSearchCache.INDEX_UPDATE_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        onChange(event);
+    }
+
+    /**
+     * Weights the book's title and author by a created or deleted loan.
+     *
+     * @param event the loan change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoanStateChanged(LoanStateChangedEvent event) {
+        if (event.before().exists() != event.after().exists()) {
+            onChange(event);
+        }
+    }
+
+    /**
+     * Finds titles and authors with a word starting with the given prefix, most borrowed first.
+     *
+     * @param prefix the typed prefix, matched case-insensitively
+     * @param limit  the maximum number of suggestions
+     * @return up to {@code limit} suggestions, empty until the index has been built
+     */
+    public List<BookSuggestionResponse> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (!ready || normalized.isEmpty()) {
+            return List.of();
+        }
+
+        // A text matching at several word starts is a candidate once
+        Map<String, Entry> candidates = new LinkedHashMap<>();
+        int scanned = 0;
+        for (String key : words.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            if (scanned++ == maxCandidates) {
+                break;
+            }
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                candidates.putIfAbsent(key, entry);
+            }
+        }
+        return candidates.values().stream()
+                .sorted(RANKING)
+                .limit(limit)
+                .map(entry -> new BookSuggestionResponse(entry.text(), entry.field()))
+                .toList();
+    }
+
+    private void onChange(Object event) {
+        synchronized (pendingEvents) {
+            if (building) {
+                pendingEvents.add(event);
+            } else {
+                apply(event);
+            }
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof BookChangedEvent bookChanged) {
+            apply(bookChanged);
+        } else if (event instanceof LoanStateChangedEvent loanChanged) {
+            apply(loanChanged);
+        }
+    }
+
+    private void apply(BookChangedEvent event) {
+        if (event.isCopiesChanged()) {
+            return;
+        }
+        // The indexed book, not the event, is removed, so its loans move to the new title and author
+        IndexedBook previous = books.remove(event.bookId());
+        if (previous != null) {
+            remove(previous);
+        }
+        if (event.after() != null) {
+            put(event.after(), previous == null ? 0 : previous.loans());
+        }
+    }
+
+    private void apply(LoanStateChangedEvent event) {
+        IndexedBook book = books.get(event.bookId());
+        if (book == null) {
+            return;
+        }
+        long delta = event.after().exists() ? 1 : -1;
+        books.put(event.bookId(), new IndexedBook(book.title(), book.author(), book.loans() + delta));
+        weigh(book.title(), TITLE, delta);
+        weigh(book.author(), AUTHOR, delta);
+    }
+
+    private void put(BookSearchDocument document, long loans) {
+        IndexedBook book = new IndexedBook(document.title(), document.author(), loans);
+        books.put(document.id(), book);
+        add(book.title(), TITLE, loans);
+        add(book.author(), AUTHOR, loans);
+    }
+
+    private void remove(IndexedBook book) {
+        remove(book.title(), TITLE, book.loans());
+        remove(book.author(), AUTHOR, book.loans());
+    }
+
+    private void add(String text, String field, long loans) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String key = normalized + FIELD_SEPARATOR + field;
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entries.put(key, entry.with(entry.count() + 1, entry.weight() + loans));
+            return;
+        }
+        entries.put(key, new Entry(text.trim(), field, normalized, 1, loans));
+        forEachWordStart(normalized, start -> words.put(normalized.substring(start) + FIELD_SEPARATOR + key, key));
+    }
+
+    private void remove(String text, String field, long loans) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String key = normalized + FIELD_SEPARATOR + field;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.count() > 1) {
+            entries.put(key, entry.with(entry.count() - 1, entry.weight() - loans));
+            return;
+        }
+        forEachWordStart(normalized, start -> words.remove(normalized.substring(start) + FIELD_SEPARATOR + key));
+        entries.remove(key);
+    }
+
+    private void weigh(String text, String field, long delta) {
+        String normalized = normalize(text);
+        if (!normalized.isEmpty()) {
+            entries.computeIfPresent(normalized + FIELD_SEPARATOR + field,
+                    (key, entry) -> entry.with(entry.count(), entry.weight() + delta));
+        }
+    }
+
+    private static void forEachWordStart(String normalized, IntConsumer action) {
+        action.accept(0);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            action.accept(i + 1);
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    /**
+     * A title or author shared by {@code count} books with {@code weight} loans between them.
+     */
+    private record Entry(String text, String field, String normalized, int count, long weight) {
+
+        Entry with(int count, long weight) {
+            return new Entry(text, field, normalized, count, weight);
+        }
+    }
+
+    private record IndexedBook(String title, String author, long loans) {
+    }
+}
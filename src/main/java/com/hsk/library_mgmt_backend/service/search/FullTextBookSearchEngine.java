@@ -0,0 +1,121 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.projection.GenreCount;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.persistent.query.OffsetCursor;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Book search backed by the generated {@code book.search_vector} column and {@code pg_trgm} indexes.
+ * <p>
+ * Matches are ranked by full-text relevance, then by trigram similarity of title and author so that
+ * misspelled or partial words still find their book. ISBN-shaped queries are answered with an exact
+ * lookup first; when the genre filter excludes the book found, the results fall back to the full-text
+ * search, and the genre facets count each genre the way its filtered results do. An empty query falls back
+ * to {@link LikeBookSearchEngine}. Cursor pages walk the ranked results by position.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FullTextBookSearchEngine implements BookSearchEngine {
+
+    private static final Pattern ISBN_SEPARATORS = Pattern.compile("[\\s-]");
+    private static final Pattern ISBN = Pattern.compile("\\d{9}[\\dXx]|\\d{13}");
+
+    private final BookRepository bookRepository;
+    private final LikeBookSearchEngine likeBookSearchEngine;
+
+    @Override
+    public BookSearchMode mode() {
+        return BookSearchMode.FULL_TEXT;
+    }
+
+    @Override
+    public Page<Book> search(Pageable pageable, String queryString, String genre) {
+        String query = queryString.trim();
+        if (query.isEmpty()) {
+            return likeBookSearchEngine.search(pageable, queryString, genre);
+        }
+
+        Book book = findByIsbn(query);
+        if (book != null && isExactMatchShown(book, genre)) {
+            log.debug("Exact ISBN match for query {}", query);
+            List<Book> content = pageable.getOffset() == 0 ? List.of(book) : List.of();
+            return new PageImpl<>(content, pageable, 1);
+        }
+
+        return bookRepository.searchFullText(query, genre.toLowerCase(), pageable);
+    }
+
+    @Override
+    public CursorPage<Book> searchByCursor(String cursor, int pageSize, String queryString, String genre) {
+        String query = queryString.trim();
+        if (query.isEmpty()) {
+            return likeBookSearchEngine.searchByCursor(cursor, pageSize, queryString, genre);
+        }
+
+        long offset = OffsetCursor.offsetOf(cursor);
+        Book book = findByIsbn(query);
+        if (book != null && isExactMatchShown(book, genre)) {
+            return new CursorPage<>(offset == 0 ? List.of(book) : List.of(), null);
+        }
+
+        // One extra row tells whether another page follows
+        return OffsetCursor.page(bookRepository.findFullTextSlice(query, genre.toLowerCase(), offset, pageSize + 1),
+                offset, pageSize);
+    }
+
+    @Override
+    public Map<String, Long> genreFacets(String queryString) {
+        String query = queryString.trim();
+        if (query.isEmpty()) {
+            return likeBookSearchEngine.genreFacets(queryString);
+        }
+
+        Book book = findByIsbn(query);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (book != null && book.getGenre() != null) {
+            // Filtered on the book's genre the results are the exact match alone
+            counts.put(book.getGenre().toLowerCase(Locale.ROOT), 1L);
+        }
+        for (GenreCount genreCount : bookRepository.countFullTextByGenre(query)) {
+            // Any other genre falls back to the full-text search, as in search
+            if (book == null || !isExactMatchShown(book, genreCount.getGenre())) {
+                counts.put(genreCount.getGenre(), genreCount.getCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @param book  the book found by an exact ISBN lookup
+     * @param genre the genre filter, empty for none
+     * @return whether the results are the book alone rather than the full-text matches
+     */
+    private static boolean isExactMatchShown(Book book, String genre) {
+        return genre.isEmpty() || genre.equalsIgnoreCase(book.getGenre());
+    }
+
+    /**
+     * @param query the trimmed search query
+     * @return the book with that ISBN when the query is shaped like one, ignoring spaces and hyphens
+     */
+    private Book findByIsbn(String query) {
+        String isbn = ISBN_SEPARATORS.matcher(query).replaceAll("");
+        return ISBN.matcher(isbn).matches() ? bookRepository.findByIsbn(isbn) : null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.persistent.query.OffsetCursor;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Book search answered from the {@link InMemoryBookSearchIndex}.
+ * <p>
+ * Matching and counting happen in memory; the database is only hit to load the books of the requested
+ * page. Results are ordered by ID descending (newest first); cursor pages walk them by position. Until the
+ * index has been built, searches fall back to {@link LikeBookSearchEngine}.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.search.mode", havingValue = "MEMORY")
+public class InMemoryBookSearchEngine implements BookSearchEngine {
+
+    private final InMemoryBookSearchIndex index;
+    private final BookRepository bookRepository;
+    private final LikeBookSearchEngine likeBookSearchEngine;
+
+    @Override
+    public BookSearchMode mode() {
+        return BookSearchMode.MEMORY;
+    }
+
+    @Override
+    public Map<String, Long> genreFacets(String queryString) {
+        if (!index.isReady()) {
+            return likeBookSearchEngine.genreFacets(queryString);
+        }
+        return index.genreFacets(queryString);
+    }
+
+    @Override
+    public Page<Book> search(Pageable pageable, String queryString, String genre) {
+        if (!index.isReady()) {
+            return likeBookSearchEngine.search(pageable, queryString, genre);
+        }
+
+        long[] ids = index.search(queryString, genre);
+        return new PageImpl<>(loadNewestFirst(ids, pageable.getOffset(), pageable.getPageSize()), pageable, ids.length);
+    }
+
+    @Override
+    public CursorPage<Book> searchByCursor(String cursor, int pageSize, String queryString, String genre) {
+        if (!index.isReady()) {
+            return likeBookSearchEngine.searchByCursor(cursor, pageSize, queryString, genre);
+        }
+
+        long offset = OffsetCursor.offsetOf(cursor);
+        // One extra row tells whether another page follows
+        return OffsetCursor.page(loadNewestFirst(index.search(queryString, genre), offset, pageSize + 1),
+                offset, pageSize);
+    }
+
+    /**
+     * Loads the books of the matching IDs from an offset, newest first.
+     */
+    private List<Book> loadNewestFirst(long[] ids, long offset, int count) {
+        int total = ids.length;
+        int from = (int) Math.min(offset, total);
+        int to = Math.min(from + count, total);
+
+        // The IDs are sorted ascending; walk them from the end for newest first
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[total - 1 - i]);
+        }
+
+        Map<Long, Book> booksById = bookRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return pageIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,333 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over the book catalog.
+ * <p>
+ * Title, author, genre and ISBN tokens map to sorted posting lists of primitive book IDs. The index is
+ * built from a streamed scan once the application is ready and then kept current from
+ * {@link BookChangedEvent}s after each commit. Changes committed while the initial build is running are
+ * queued and replayed once it completes.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "library.search.mode", havingValue = "MEMORY")
+public class InMemoryBookSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ISBN_SEPARATORS = Pattern.compile("[\\s-]");
+    private static final Pattern ISBN_LIKE = Pattern.compile("[0-9Xx]{4,}");
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, LongPostingList> terms = new TreeMap<>();
+    private final Map<String, LongPostingList> genres = new HashMap<>();
+    private final LongPostingList allIds = new LongPostingList();
+    private final List<BookChangedEvent> pendingEvents = new ArrayList<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("library.search.index.documents", this, InMemoryBookSearchIndex::documentCount)
+                .description("Books held in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("library.search.index.memory", this, InMemoryBookSearchIndex::estimatedBytes)
+                .description("Approximate heap used by the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("library.search.index.memory.per.100k.books", this, index -> {
+                    long documents = index.documentCount();
+                    return documents == 0 ? 0 : index.estimatedBytes() * 100_000.0 / documents;
+                })
+                .description("Approximate heap used by the in-memory search index per 100k books")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the index from a streamed scan of the book table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        withWriteLock(() -> building = true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookSearchDocument> documents = bookRepository.streamSearchDocuments()) {
+                documents.forEach(document -> withWriteLock(() -> add(document)));
+            }
+        });
+
+        withWriteLock(() -> {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            building = false;
+        });
+        ready = true;
+        log.info("Book search index built with {} books and {} terms in {} ms",
+                documentCount(), terms.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a committed book change to the index, before the {@link BookSearchCache} reopens.
+     *
+     * @param event the book change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(BookSearchCache.INDEX_UPDATE_ORDER)
+    public void onBookChanged(BookChangedEvent event) {
+        withWriteLock(() -> {
+            if (building) {
+                pendingEvents.add(event);
+            } else {
+                apply(event);
+            }
+        });
+    }
+
+    /**
+     * @return true once the initial build has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the books matching every query token (by token prefix) and the genre.
+     *
+     * @param queryString the free-text query, empty to match every book
+     * @param genre       the genre to filter books, empty for all genres
+     * @return the sorted IDs of the matching books
+     */
+    public long[] search(String queryString, String genre) {
+        lock.readLock().lock();
+        try {
+            long[] result = queryMatches(queryString);
+            if (!genre.isEmpty()) {
+                LongPostingList genreIds = genres.get(genre.toLowerCase(Locale.ROOT));
+                long[] matches = genreIds == null ? new long[0] : genreIds.toArray();
+                result = result == null ? matches : LongPostingList.intersect(result, matches);
+            }
+            return result == null ? allIds.toArray() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the books matching the query per genre.
+     *
+     * @param queryString the free-text query, empty to match every book
+     * @return the counts keyed by lower-cased genre, largest first
+     */
+    public Map<String, Long> genreFacets(String queryString) {
+        lock.readLock().lock();
+        try {
+            long[] result = queryMatches(queryString);
+            List<Map.Entry<String, Long>> counts = new ArrayList<>(genres.size());
+            for (Map.Entry<String, LongPostingList> genre : genres.entrySet()) {
+                long count = result == null
+                        ? genre.getValue().size()
+                        : LongPostingList.intersect(result, genre.getValue().toArray()).length;
+                if (count > 0) {
+                    counts.add(Map.entry(genre.getKey(), count));
+                }
+            }
+            counts.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, Long> facets = new LinkedHashMap<>();
+            counts.forEach(entry -> facets.put(entry.getKey(), entry.getValue()));
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed books
+     */
+    public long documentCount() {
+        lock.readLock().lock();
+        try {
+            return allIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the approximate heap retained by the index in bytes
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return estimatedBytes(terms) + estimatedBytes(genres) + allIds.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(BookChangedEvent event) {
+        if (event.before() != null) {
+            remove(event.before());
+        }
+        if (event.after() != null) {
+            add(event.after());
+        }
+    }
+
+    private void add(BookSearchDocument document) {
+        long id = document.id();
+        documentTokens(document).forEach(token -> terms.computeIfAbsent(token, key -> new LongPostingList()).add(id));
+        if (document.genre() != null) {
+            genres.computeIfAbsent(document.genre().toLowerCase(Locale.ROOT), key -> new LongPostingList()).add(id);
+        }
+        allIds.add(id);
+    }
+
+    private void remove(BookSearchDocument document) {
+        long id = document.id();
+        documentTokens(document).forEach(token -> removePosting(terms, token, id));
+        if (document.genre() != null) {
+            removePosting(genres, document.genre().toLowerCase(Locale.ROOT), id);
+        }
+        allIds.remove(id);
+    }
+
+    /**
+     * @return the sorted IDs matching every query token, or null for an empty query
+     */
+    private long[] queryMatches(String queryString) {
+        long[] result = null;
+        for (String token : queryTokens(queryString)) {
+            long[] matches = prefixMatches(token);
+            result = result == null ? matches : LongPostingList.intersect(result, matches);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private long[] prefixMatches(String prefix) {
+        Collection<LongPostingList> postings = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (postings.size() == 1) {
+            return postings.iterator().next().toArray();
+        }
+
+        long[] buffer = new long[16];
+        int size = 0;
+        for (LongPostingList posting : postings) {
+            buffer = posting.copyInto(buffer, size);
+            size += posting.size();
+        }
+        Arrays.sort(buffer, 0, size);
+
+        // Drop the IDs matched through several terms
+        int unique = 0;
+        for (int i = 0; i < size; i++) {
+            if (unique == 0 || buffer[unique - 1] != buffer[i]) {
+                buffer[unique++] = buffer[i];
+            }
+        }
+        return Arrays.copyOf(buffer, unique);
+    }
+
+    private static Set<String> documentTokens(BookSearchDocument document) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokenize(document.title(), tokens);
+        tokenize(document.author(), tokens);
+        tokenize(document.genre(), tokens);
+        if (document.isbn() != null) {
+            tokens.add(ISBN_SEPARATORS.matcher(document.isbn()).replaceAll("").toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    private static Set<String> queryTokens(String queryString) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String isbn = ISBN_SEPARATORS.matcher(queryString.trim()).replaceAll("");
+        if (ISBN_LIKE.matcher(isbn).matches()) {
+            tokens.add(isbn.toLowerCase(Locale.ROOT));
+        } else {
+            tokenize(queryString, tokens);
+        }
+        return tokens;
+    }
+
+    private static void tokenize(String text, Set<String> tokens) {
+        if (text == null) {
+            return;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, LongPostingList> postings, String key, long id) {
+        LongPostingList posting = postings.get(key);
+        if (posting != null && posting.remove(id) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static long estimatedBytes(Map<String, LongPostingList> postings) {
+        long bytes = 0;
+        for (Map.Entry<String, LongPostingList> entry : postings.entrySet()) {
+            // Map entry, String object and its byte array, then the posting list itself
+            bytes += 40L + 24L + 16L + entry.getKey().length() + entry.getValue().estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.query.CriteriaPageExecutor;
+import com.hsk.library_mgmt_backend.persistent.query.CriteriaPredicateBuilder;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Book search using case-insensitive {@code LIKE '%query%'} predicates, ordered by most recently updated.
+ * <p>
+ * It needs no schema support and is the fallback for the other engines.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeBookSearchEngine implements BookSearchEngine {
+
+    private final CriteriaPageExecutor criteriaPageExecutor;
+
+    @Override
+    public BookSearchMode mode() {
+        return BookSearchMode.LIKE;
+    }
+
+    @Override
+    public Page<Book> search(Pageable pageable, String queryString, String genre) {
+        return criteriaPageExecutor.findPage(Book.class, predicates(queryString, genre), pageable);
+    }
+
+    @Override
+    public CursorPage<Book> searchByCursor(String cursor, int pageSize, String queryString, String genre) {
+        return criteriaPageExecutor.findSlice(Book.class, predicates(queryString, genre), cursor, pageSize);
+    }
+
+    @Override
+    public Map<String, Long> genreFacets(String queryString) {
+        return criteriaPageExecutor.countGroupedByLower(Book.class, predicates(queryString, ""), "genre");
+    }
+
+    /**
+     * Builds the WHERE clause conditions for the book search.
+     *
+     * @param queryString the search query to filter books
+     * @param genre       the genre to filter books
+     * @return the predicate builder combining the conditions with AND
+     */
+    public CriteriaPredicateBuilder<Book> predicates(String queryString, String genre) {
+        return (criteriaBuilder, root) -> {
+            // List to store the conditions for the WHERE clause
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (!queryString.isEmpty()) {
+                // Combined search predicate (OR logic across multiple fields)
+                Predicate searchPredicate = null;
+                for (String field : new String[]{"title", "author", "isbn", "genre"}) {
+                    Predicate fieldPredicate = criteriaBuilder.like(
+                            criteriaBuilder.lower(root.get(field)),
+                            "%" + queryString.toLowerCase() + '%');
+                    if (searchPredicate == null) {
+                        searchPredicate = fieldPredicate;
+                    } else {
+                        searchPredicate = criteriaBuilder.or(searchPredicate, fieldPredicate);
+                    }
+                }
+                predicates.add(searchPredicate);
+            }
+
+            if (!genre.isEmpty()) {
+                Predicate genrePredicate = criteriaBuilder.equal(
+                        criteriaBuilder.lower(root.get("genre")),
+                        genre.toLowerCase());
+                predicates.add(genrePredicate);
+            }
+
+            return predicates;
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import java.util.Arrays;
+
+/**
+ * A growable, sorted set of primitive {@code long} IDs used as a posting list.
+ * <p>
+ * Not thread-safe; callers guard access with their own lock.
+ * </p>
+ */
+class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds an ID, keeping the list sorted.
+     *
+     * @param id the ID to add
+     * @return true if the ID was not already present
+     */
+    boolean add(long id) {
+        // Appending in ascending order is the common case during a full build
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertionPoint = -index - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+        ids[insertionPoint] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id the ID to remove
+     * @return true if the ID was present
+     */
+    boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return a sorted copy of the IDs
+     */
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Appends the IDs to the given buffer starting at the given offset, growing it as needed.
+     *
+     * @param buffer the buffer to append to
+     * @param offset the number of IDs already in the buffer
+     * @return the buffer, possibly reallocated
+     */
+    long[] copyInto(long[] buffer, int offset) {
+        long[] target = buffer.length < offset + size ? Arrays.copyOf(buffer, Math.max(buffer.length * 2, offset + size)) : buffer;
+        System.arraycopy(ids, 0, target, offset, size);
+        return target;
+    }
+
+    /**
+     * @return the approximate retained heap size of this list in bytes
+     */
+    long estimatedBytes() {
+        // Object header and fields, plus the array header and its slots
+        return 24L + 16L + 8L * ids.length;
+    }
+
+    /**
+     * Intersects two sorted, duplicate-free ID arrays.
+     *
+     * @param left  the first sorted array
+     * @param right the second sorted array
+     * @return the sorted IDs present in both arrays
+     */
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+        }
+    }
+}
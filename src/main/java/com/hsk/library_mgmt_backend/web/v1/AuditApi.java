@@ -0,0 +1,87 @@
+package com.hsk.library_mgmt_backend.web.v1;
+
+import com.hsk.library_mgmt_backend.dto.AuditEntryDto;
+import com.hsk.library_mgmt_backend.helper.AuditHelper;
+import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST controller for reading the audit history of books, members and book transactions.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/audit")
+@SecurityRequirement(name = "bearerAuth")
+public class AuditApi {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofHours(1);
+
+    private final AuditHelper auditHelper;
+
+    /**
+     * Retrieves the audited changes of one entity, newest first, with keyset pagination.
+     *
+     * @param entity   the audited entity: {@code book}, {@code member} or {@code book-transaction}
+     * @param id       the ID of the entity
+     * @param pageSize the number of changes per page, at most 100
+     * @param cursor   empty for the first page, otherwise the {@code nextCursor} of the previous response
+     * @return a response containing a page of changes
+     */
+    @GetMapping("/{entity}/{id}")
+    @PreAuthorize("hasAnyAuthority('admin:read')")
+    @Operation(summary = "Get the audit history of an entity", tags = "Audit")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Audit history retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Unknown audited entity")
+    })
+    public ResponsePaginationData<List<AuditEntryDto>> getEntityHistory(
+            @PathVariable("entity") String entity,
+            @PathVariable("id") Long id,
+            @RequestParam(value = "size", defaultValue = "20", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        return auditHelper.getEntityHistory(entity, id, cursor, pageSize);
+    }
+
+    /**
+     * Retrieves the audited changes of an entity type recorded in a time range, newest first, with keyset pagination.
+     *
+     * @param entity   the audited entity: {@code book}, {@code member} or {@code book-transaction}
+     * @param from     the start of the range (ISO-8601 instant), inclusive; one hour before {@code to} by default
+     * @param to       the end of the range (ISO-8601 instant), exclusive; now by default
+     * @param pageSize the number of changes per page, at most 100
+     * @param cursor   empty for the first page, otherwise the {@code nextCursor} of the previous response
+     * @return a response containing a page of changes
+     */
+    @GetMapping("/{entity}")
+    @PreAuthorize("hasAnyAuthority('admin:read')")
+    @Operation(summary = "Get the audited changes of an entity type in a time range", tags = "Audit")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Audited changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid range, page size or cursor"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "404", description = "Unknown audited entity")
+    })
+    public ResponsePaginationData<List<AuditEntryDto>> getChanges(
+            @PathVariable("entity") String entity,
+            @RequestParam(value = "from", required = false) Instant from,
+            @RequestParam(value = "to", required = false) Instant to,
+            @RequestParam(value = "size", defaultValue = "20", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        return auditHelper.getChanges(entity, start, end, cursor, pageSize);
+    }
+}
@@ -1,7 +1,10 @@
 package com.hsk.library_mgmt_backend.web.v1;
 
 import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
 import com.hsk.library_mgmt_backend.helper.BookHelper;
+import com.hsk.library_mgmt_backend.response.BookImportJobResponse;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
 import com.hsk.library_mgmt_backend.response.ResponseData;
 import com.hsk.library_mgmt_backend.response.ResponsePaginationData;
 import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
@@ -14,10 +17,13 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -36,11 +42,12 @@ public class BookApi {
     }
 
     /**
-     * Adds a list of books in bulk.
+     * Adds a list of books in bulk. Books that are invalid or whose ISBN is repeated or already taken
+     * are reported individually and do not prevent the others from being added.
      *
      * @param request         the request containing details of books to be added
      * @param bindingResult  the result of the validation
-     * @return a response containing the list of added books
+     * @return a response containing the added books and the rejected ones
      */
     @PostMapping("/bulk")
     @Operation(summary = "Add multiple books", tags = "Book")
@@ -49,11 +56,49 @@ public class BookApi {
             @ApiResponse(responseCode = "201", description = "Books successfully added"),
             @ApiResponse(responseCode = "400", description = "Invalid request data")
     })
-    public ResponseData<List<BookDto>> addBookBulk(@Valid @RequestBody BulkBookRequest request,
-                                                   BindingResult bindingResult) {
+    public ResponseData<BulkImportResult<BookDto>> addBookBulk(@Valid @RequestBody BulkBookRequest request,
+                                                               BindingResult bindingResult) {
         return bookHelper.addBookBulky(request, bindingResult);
     }
 
+    /**
+     * Starts a streaming import of books from a CSV or NDJSON request body. The body is received as it
+     * arrives and imported in the background, with the same validation as {@link #addBookBulk}.
+     *
+     * @param contentType the format of the body, {@code text/csv} or {@code application/x-ndjson}
+     * @param body        the books to import
+     * @return a response containing the import job, to poll for progress
+     * @throws IOException if the body cannot be received
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Import books from a CSV or NDJSON stream", tags = "Book")
+    @PreAuthorize("hasAuthority('admin:create')")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started"),
+            @ApiResponse(responseCode = "400", description = "Unsupported content type")
+    })
+    public ResponseData<BookImportJobResponse> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                           InputStream body) throws IOException {
+        return bookHelper.importBooks(contentType, body);
+    }
+
+    /**
+     * Retrieves the progress of a streaming import.
+     *
+     * @param jobId the ID returned when the import was started
+     * @return a response containing the import job
+     */
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get book import progress", tags = "Book")
+    @PreAuthorize("hasAuthority('admin:create')")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import progress retrieved"),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    public ResponseData<BookImportJobResponse> getImportJob(@PathVariable("jobId") String jobId) {
+        return bookHelper.getImportJob(jobId);
+    }
+
     /**
      * Adds a single book.
      *
@@ -97,6 +142,9 @@ public class BookApi {
      * @param genre        the genre to filter books by
      * @param pageNumber   the page number to retrieve
      * @param pageSize     the number of items per page
+     * @param cursor       enables cursor pagination when present; empty for the first page,
+     *                     otherwise the {@code nextCursor} of the previous response
+     * @param facets       whether to add the per-genre counts of the query, ignoring the genre filter
      * @return a response containing a paginated list of books
      */
     @GetMapping("")
@@ -109,10 +157,38 @@ public class BookApi {
             @RequestParam(value = "query", defaultValue = "", required = false) String query,
             @RequestParam(value = "genre", defaultValue = "", required = false) String genre,
             @RequestParam(value = "page", defaultValue = "1", required = false) Integer pageNumber,
-            @RequestParam(value = "size", defaultValue = "2", required = false) Integer pageSize
+            @RequestParam(value = "size", defaultValue = "2", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "facets", defaultValue = "false", required = false) Boolean facets
+    ) {
+        ResponsePaginationData<List<BookDto>> page;
+        if (cursor != null) {
+            page = bookHelper.getAllBooksByCursor(cursor, pageSize, query, genre);
+        } else {
+            Pageable pageable = PageRequest.of(pageNumber - 1, pageSize);
+            page = bookHelper.getAllBooks(pageable, query, genre);
+        }
+        return facets ? bookHelper.withGenreFacets(page, query) : page;
+    }
+
+    /**
+     * Suggests book titles and authors for the search box.
+     *
+     * @param prefix the text typed so far
+     * @param limit  the maximum number of suggestions, capped at 50
+     * @return a response containing the matching titles and authors
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest titles and authors", tags = "Book")
+    @PreAuthorize("hasAnyAuthority('admin:read','member:read')")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    })
+    public ResponseData<List<BookSuggestionResponse>> suggestBooks(
+            @RequestParam(value = "prefix", defaultValue = "", required = false) String prefix,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) Integer limit
     ) {
-        Pageable pageable = PageRequest.of(pageNumber - 1, pageSize);
-        return bookHelper.getAllBooks(pageable, query, genre);
+        return bookHelper.suggestBooks(prefix, Math.max(1, Math.min(limit, 50)));
     }
 
     /**
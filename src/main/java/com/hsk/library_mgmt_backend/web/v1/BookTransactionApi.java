@@ -79,6 +79,9 @@ public class BookTransactionApi {
      * @param memberId     the ID of the member whose transactions to filter
      * @param pageNumber   the page number to retrieve
      * @param pageSize     the number of items per page
+     * @param cursor       enables keyset pagination when present; empty for the first page,
+     *                     otherwise the {@code nextCursor} of the previous response
+     * @param includeArchived whether closed loans moved to the archive are included
      * @return a response containing a paginated list of book transactions
      */
     @GetMapping("")
@@ -92,10 +95,15 @@ public class BookTransactionApi {
             @RequestParam(value = "status", defaultValue = "", required = false) String status,
             @RequestParam(value = "memberId", defaultValue = "", required = false) Long memberId,
             @RequestParam(value = "page", defaultValue = "1", required = false) Integer pageNumber,
-            @RequestParam(value = "size", defaultValue = "10", required = false) Integer pageSize
+            @RequestParam(value = "size", defaultValue = "10", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeArchived", defaultValue = "false", required = false) boolean includeArchived
     ) {
+        if (cursor != null) {
+            return bookTransactionHelper.getAllBookTransactionsByCursor(cursor, pageSize, query, status, memberId, includeArchived);
+        }
         Pageable pageable = PageRequest.of(pageNumber - 1, pageSize);
-        return bookTransactionHelper.getAllBookTransactions(pageable, query, status, memberId);
+        return bookTransactionHelper.getAllBookTransactions(pageable, query, status, memberId, includeArchived);
     }
 
     /**
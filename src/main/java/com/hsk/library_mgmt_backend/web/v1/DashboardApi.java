@@ -10,8 +10,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST controller for managing dashboard data in the library system.
@@ -40,6 +42,23 @@ public class DashboardApi {
         return dashboardHelper.getAdminDashboardCount();
     }
 
+    /**
+     * Streams the dashboard count for admin users as Server-Sent Events.
+     * The current counts are sent on connect, then again whenever they change.
+     *
+     * @return the event stream of admin dashboard count data
+     */
+    @GetMapping(value = "/admin/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('admin:read')")
+    @Operation(summary = "Stream Admin Dashboard Count", tags = "Dashboard")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Admin dashboard count stream opened"),
+            @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    public SseEmitter streamAdminDashboardCount() {
+        return dashboardHelper.streamAdminDashboardCount();
+    }
+
     /**
      * Retrieves the dashboard count for a specific member.
      *
@@ -76,6 +76,8 @@ public class MemberApi {
      * @param query the search query to filter members
      * @param pageNumber the page number for pagination
      * @param pageSize the number of members per page
+     * @param cursor enables keyset pagination when present; empty for the first page,
+     *               otherwise the {@code nextCursor} of the previous response
      * @return a paginated response containing a list of members
      */
     @GetMapping("")
@@ -89,8 +91,12 @@ public class MemberApi {
     public ResponsePaginationData<List<MemberDto>> getAllMembers(
             @Valid @RequestParam(value = "query", defaultValue = "", required = false) String query,
             @Valid @RequestParam(value = "page", defaultValue = "1", required = false) Integer pageNumber,
-            @Valid @RequestParam(value = "size", defaultValue = "10", required = false) Integer pageSize
+            @Valid @RequestParam(value = "size", defaultValue = "10", required = false) Integer pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
+        if (cursor != null) {
+            return memberHelper.getAllMembersByCursor(cursor, pageSize, query);
+        }
         Pageable pageable = PageRequest.of(pageNumber - 1, pageSize);
         return memberHelper.getAllMembers(pageable, query);
     }
@@ -1,8 +1,14 @@
 package com.hsk.library_mgmt_backend.web.v1.payload.book;
 
+import jakarta.validation.constraints.NotNull;
+
 import java.util.List;
 
+/**
+ * Books to add in one request. A null entry rejects the request; the books themselves are not validated
+ * here, so an invalid one is reported as a failure of that item while the others are added.
+ */
 public record BulkBookRequest(
-        List<BookRequest> bookRequestList
+        List<@NotNull(message = "Book entries must not be null") BookRequest> bookRequestList
 ) {
 }
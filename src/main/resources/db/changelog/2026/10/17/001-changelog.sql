@@ -0,0 +1,10 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224000000-1 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_updated_at_id ON book (updated_at DESC, id DESC);
+
+-- changeset hari:1792224000000-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_member_updated_at_id ON member (updated_at DESC, id DESC);
+
+-- changeset hari:1792224000000-3 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_updated_at_id ON book_transaction (updated_at DESC, id DESC);
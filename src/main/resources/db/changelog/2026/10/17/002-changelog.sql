@@ -0,0 +1,22 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224100000-1
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- changeset hari:1792224100000-2
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(isbn, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(author, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(genre, '')), 'C')
+        ) STORED;
+
+-- changeset hari:1792224100000-3 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_search_vector ON book USING GIN (search_vector);
+
+-- changeset hari:1792224100000-4 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_title_trgm ON book USING GIN (lower(title) gin_trgm_ops);
+
+-- changeset hari:1792224100000-5 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_author_trgm ON book USING GIN (lower(author) gin_trgm_ops);
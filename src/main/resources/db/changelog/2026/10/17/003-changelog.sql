@@ -0,0 +1,4 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224200000-1 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_lower_genre ON book (lower(genre));
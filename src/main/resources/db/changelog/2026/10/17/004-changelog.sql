@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224300000-1 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_overdue
+    ON book_transaction (due_date, id)
+    WHERE return_date IS NULL AND status <> 'CANCELLED';
+
+-- changeset hari:1792224300000-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_overdue_member
+    ON book_transaction (member_fk, due_date, id)
+    WHERE return_date IS NULL AND status <> 'CANCELLED';
@@ -0,0 +1,23 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224400000-1
+CREATE TABLE circulation_stats
+(
+    counter       VARCHAR(32) NOT NULL,
+    stripe        SMALLINT    NOT NULL,
+    counter_value BIGINT      NOT NULL,
+    CONSTRAINT pk_circulation_stats PRIMARY KEY (counter, stripe)
+);
+
+-- changeset hari:1792224400000-2
+INSERT INTO circulation_stats (counter, stripe, counter_value)
+SELECT 'BOOKS', 0, count(*) FROM book
+UNION ALL
+SELECT 'MEMBERS', 0, count(*) FROM member
+UNION ALL
+SELECT 'REQUESTED', 0, count(*) FROM book_transaction WHERE status = 'REQUESTED'
+UNION ALL
+SELECT 'BORROWED', 0, count(*) FROM book_transaction WHERE return_date IS NULL AND status = 'APPROVED'
+UNION ALL
+SELECT 'OVERDUE', 0, count(*) FROM book_transaction
+WHERE due_date < CURRENT_DATE AND return_date IS NULL AND status <> 'CANCELLED';
@@ -0,0 +1,15 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224500000-1
+CREATE TABLE member_circulation_summary
+(
+    member_id       BIGINT NOT NULL,
+    total_books     BIGINT NOT NULL,
+    requested_books BIGINT NOT NULL,
+    borrowed_books  BIGINT NOT NULL,
+    CONSTRAINT pk_member_circulation_summary PRIMARY KEY (member_id)
+);
+
+-- changeset hari:1792224500000-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_member_status
+    ON book_transaction (member_fk, status);
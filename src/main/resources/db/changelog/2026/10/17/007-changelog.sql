@@ -0,0 +1,4 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224600000-1
+ALTER SEQUENCE book_seq INCREMENT BY 50;
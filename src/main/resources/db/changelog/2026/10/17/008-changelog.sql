@@ -0,0 +1,22 @@
+-- liquibase formatted sql
+
+-- Entities allocate ids in blocks of 50 with the pooled-lo optimizer: a sequence value V hands out V .. V + 49.
+-- Each sequence is first moved to at least the highest id in use, so the next block starts above every existing
+-- row whichever optimizer produced it. Nodes still on allocationSize 1 stay safe while the new ones start, since
+-- every value they take afterwards is a multiple of 50 apart from the blocks. Nodes still on the pooled optimizer
+-- (book_seq, revinfo_seq) read V as the high end of a block and must not run next to pooled-lo nodes.
+
+-- changeset hari:1792224700000-1
+SELECT setval('member_seq', greatest((SELECT coalesce(max(id), 1) FROM member), (SELECT last_value FROM member_seq)));
+ALTER SEQUENCE member_seq INCREMENT BY 50;
+
+-- changeset hari:1792224700000-2
+SELECT setval('book_transaction_seq',
+              greatest((SELECT coalesce(max(id), 1) FROM book_transaction), (SELECT last_value FROM book_transaction_seq)));
+ALTER SEQUENCE book_transaction_seq INCREMENT BY 50;
+
+-- changeset hari:1792224700000-3
+SELECT setval('book_seq', greatest((SELECT coalesce(max(id), 1) FROM book), (SELECT last_value FROM book_seq)));
+
+-- changeset hari:1792224700000-4
+SELECT setval('revinfo_seq', greatest((SELECT coalesce(max(rev), 1) FROM revinfo), (SELECT last_value FROM revinfo_seq)));
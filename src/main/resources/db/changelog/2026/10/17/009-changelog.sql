@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224800000-1
+CREATE TABLE audit_outbox
+(
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    revtstmp  BIGINT                                  NOT NULL,
+    username  VARCHAR(255)                            NOT NULL,
+    user_type VARCHAR(255)                            NOT NULL,
+    changes   JSONB                                   NOT NULL,
+    CONSTRAINT pk_audit_outbox PRIMARY KEY (id)
+);
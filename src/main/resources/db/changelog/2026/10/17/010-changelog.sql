@@ -0,0 +1,15 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792224900000-1 runInTransaction:false
+-- The audit tables are keyed (rev, id); the history of one entity needs id first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_aud_id_rev ON book_aud (id, rev);
+
+-- changeset hari:1792224900000-2 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_member_aud_id_rev ON member_aud (id, rev);
+
+-- changeset hari:1792224900000-3 runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_aud_id_rev ON book_transaction_aud (id, rev);
+
+-- changeset hari:1792224900000-4 runInTransaction:false
+-- Covers the revisions of a time range, so they are found without reading revinfo itself
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_revinfo_revtstmp ON revinfo (revtstmp) INCLUDE (rev);
@@ -0,0 +1,44 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792225000000-1
+-- Closed loans moved out of book_transaction; one partition per year of request_date, created by the archive job
+CREATE TABLE book_transaction_archive
+(
+    id           BIGINT                      NOT NULL,
+    version      BIGINT,
+    created_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_by   VARCHAR(255)                NOT NULL,
+    updated_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_by   VARCHAR(255)                NOT NULL,
+    deleted      BOOLEAN DEFAULT FALSE       NOT NULL,
+    book_fk      BIGINT,
+    member_fk    BIGINT,
+    request_date date                        NOT NULL,
+    status       VARCHAR(255)                NOT NULL,
+    issue_date   date,
+    due_date     date,
+    return_date  date,
+    CONSTRAINT pk_book_transaction_archive PRIMARY KEY (id, request_date),
+    CONSTRAINT FK_BOOK_TRANSACTION_ARCHIVE_ON_BOOK FOREIGN KEY (book_fk) REFERENCES book (id),
+    CONSTRAINT FK_BOOK_TRANSACTION_ARCHIVE_ON_MEMBER FOREIGN KEY (member_fk) REFERENCES member (id)
+) PARTITION BY RANGE (request_date);
+
+-- changeset hari:1792225000000-2
+CREATE INDEX idx_book_transaction_archive_member ON book_transaction_archive (member_fk);
+CREATE INDEX idx_book_transaction_archive_book ON book_transaction_archive (book_fk);
+
+-- changeset hari:1792225000000-3
+CREATE VIEW book_transaction_history AS
+SELECT id, version, created_at, created_by, updated_at, updated_by, deleted,
+       book_fk, member_fk, request_date, status, issue_date, due_date, return_date
+FROM book_transaction
+UNION ALL
+SELECT id, version, created_at, created_by, updated_at, updated_by, deleted,
+       book_fk, member_fk, request_date, status, issue_date, due_date, return_date
+FROM book_transaction_archive;
+
+-- changeset hari:1792225000000-4 runInTransaction:false
+-- The closed loans the archive job picks, oldest first
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_closed
+    ON book_transaction (request_date, id)
+    WHERE status IN ('RETURNED', 'CANCELLED');
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792225100000-1
+-- Outbox rows the writer could not copy are set aside with the error instead of blocking the rows after them
+ALTER TABLE audit_outbox ADD COLUMN quarantined_at TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE audit_outbox ADD COLUMN last_error TEXT;
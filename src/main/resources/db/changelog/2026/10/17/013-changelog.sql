@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792225200000-1
+-- Overdue loans are counted when the circulation counters are read, since they change as days pass
+DELETE FROM circulation_stats WHERE counter = 'OVERDUE';
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- changeset hari:1792225300000-1 runInTransaction:false
+-- The closed loans the archive job picks, by the date they were closed: returned ones on their return date,
+-- cancelled ones on their last update
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_book_transaction_closed_on
+    ON book_transaction ((COALESCE(return_date, CAST(updated_at AS date))), id)
+    WHERE status IN ('RETURNED', 'CANCELLED');
+
+-- changeset hari:1792225300000-2 runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS idx_book_transaction_closed;
@@ -0,0 +1,108 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.response.AdminDashboardCountResponse;
+import com.hsk.library_mgmt_backend.service.DashboardService;
+import com.hsk.library_mgmt_backend.service.impl.DashboardServiceImpl.DashboardSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks when the admin dashboard streams receive new counts: after a local change even while the cached
+ * counts are stale, on every tick from the counters, and never for unchanged counts.
+ */
+class AdminDashboardBroadcasterTest {
+
+    private static final AdminDashboardCountResponse BEFORE = new AdminDashboardCountResponse(10, 2, 0, 1, 5);
+    private static final AdminDashboardCountResponse AFTER = new AdminDashboardCountResponse(10, 3, 0, 0, 5);
+
+    private final DashboardService dashboardService = mock(DashboardService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void changeIsPushedWithCountsNewerThanTheCachedOnes() {
+        AdminDashboardBroadcaster broadcaster = broadcaster(DashboardSource.QUERY);
+        // The cached entry still holds the counts from before the change
+        when(dashboardService.getAdminDashboardCount()).thenReturn(BEFORE);
+        when(dashboardService.refreshAdminDashboardCount()).thenReturn(AFTER);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+
+        broadcaster.onLoanStateChanged(null);
+        broadcaster.publish();
+
+        assertThat(emitter.sent).containsExactly(BEFORE, AFTER);
+        assertThat(meterRegistry.timer("library.dashboard.stream.push.latency").count()).isOne();
+    }
+
+    @Test
+    void queryCountsAreNotRecomputedWithoutAChange() {
+        AdminDashboardBroadcaster broadcaster = broadcaster(DashboardSource.QUERY);
+        when(dashboardService.getAdminDashboardCount()).thenReturn(BEFORE);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+
+        broadcaster.publish();
+
+        verify(dashboardService, never()).refreshAdminDashboardCount();
+        assertThat(emitter.sent).containsExactly(BEFORE);
+    }
+
+    @Test
+    void countersAreCheckedOnEveryTickForChangesFromOtherNodes() {
+        AdminDashboardBroadcaster broadcaster = broadcaster(DashboardSource.COUNTERS);
+        when(dashboardService.getAdminDashboardCount()).thenReturn(BEFORE);
+        when(dashboardService.refreshAdminDashboardCount()).thenReturn(BEFORE, AFTER);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+
+        broadcaster.publish();
+        assertThat(emitter.sent).containsExactly(BEFORE);
+        broadcaster.publish();
+
+        assertThat(emitter.sent).containsExactly(BEFORE, AFTER);
+        // No local change was waiting to be pushed
+        assertThat(meterRegistry.timer("library.dashboard.stream.push.latency").count()).isZero();
+    }
+
+    @Test
+    void nothingIsComputedWithoutStreams() {
+        AdminDashboardBroadcaster broadcaster = broadcaster(DashboardSource.COUNTERS);
+
+        broadcaster.onBookChanged(null);
+        broadcaster.publish();
+
+        verify(dashboardService, never()).refreshAdminDashboardCount();
+    }
+
+    private AdminDashboardBroadcaster broadcaster(DashboardSource source) {
+        return new AdminDashboardBroadcaster(dashboardService, meterRegistry, source,
+                Duration.ofMinutes(30), Duration.ofHours(1));
+    }
+
+    /**
+     * Keeps the counts sent instead of writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(AdminDashboardCountResponse.class::isInstance)
+                    .forEach(sent::add);
+        }
+    }
+}
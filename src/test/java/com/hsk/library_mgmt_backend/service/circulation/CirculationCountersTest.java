@@ -0,0 +1,210 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.CirculationStat.Counter;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.projection.CounterTotal;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.CirculationStatRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
+import com.hsk.library_mgmt_backend.service.BookTransactionService;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionRequest;
+import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionUpdateRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the circulation counters against the source tables: the deltas of each loan transition, the
+ * correction of drift by the reconciliation and reads racing concurrent commits.
+ * <p>
+ * Not transactional: the counters are written when the changing transaction commits. The rows created
+ * are deleted and the counters reconciled after each test.
+ * </p>
+ */
+@SpringBootTest(properties = "library.circulation.refresh-interval=PT1H")
+class CirculationCountersTest {
+
+    private static final int BOOKS = 32;
+
+    @Autowired
+    private CirculationCounters circulationCounters;
+    @Autowired
+    private BookTransactionService bookTransactionService;
+    @Autowired
+    private BookTransactionRepository bookTransactionRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private CirculationStatRepository circulationStatRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Member member;
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        member = new Member();
+        member.setName("Counted Member");
+        member.setEmail("counted-member-" + suffix + "@example.com");
+        member.setPassword("password");
+        member.setRole(Role.STUDENT);
+        member = memberRepository.save(member);
+
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Counted Title " + i);
+            book.setAuthor("Counted Author");
+            book.setIsbn(suffix + "-" + i);
+            book.setCopiesAvailable(1);
+            books.add(bookRepository.save(book));
+        }
+        // Rows saved through the repositories publish no events, so start from counters matching the tables
+        circulationCounters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Book book : books) {
+            bookTransactionRepository.findByBookIdAndMemberId(book.getId(), member.getId())
+                    .ifPresent(bookTransactionRepository::delete);
+        }
+        bookRepository.deleteAll(books);
+        memberRepository.deleteById(member.getId());
+        circulationCounters.reconcile();
+    }
+
+    @Test
+    void transitionsMoveTheCountersByOne() {
+        long requested = circulationCounters.get(Counter.REQUESTED);
+        long borrowed = circulationCounters.get(Counter.BORROWED);
+
+        Long id = request(books.get(0)).getId();
+        assertThat(circulationCounters.get(Counter.REQUESTED)).isEqualTo(requested + 1);
+        assertThat(circulationCounters.get(Counter.BORROWED)).isEqualTo(borrowed);
+
+        bookTransactionService.updateBookTransactionById(id, new BookTransactionUpdateRequest(
+                LocalDate.now().plusDays(14), null, BookTransaction.Status.APPROVED));
+        assertThat(circulationCounters.get(Counter.REQUESTED)).isEqualTo(requested);
+        assertThat(circulationCounters.get(Counter.BORROWED)).isEqualTo(borrowed + 1);
+
+        bookTransactionService.updateBookTransactionById(id, new BookTransactionUpdateRequest(
+                null, LocalDate.now(), BookTransaction.Status.RETURNED));
+        assertThat(circulationCounters.get(Counter.REQUESTED)).isEqualTo(requested);
+        assertThat(circulationCounters.get(Counter.BORROWED)).isEqualTo(borrowed);
+
+        bookTransactionService.deleteBookTransactionById(id);
+        assertThat(circulationCounters.get(Counter.REQUESTED)).isEqualTo(requested);
+        assertThat(circulationCounters.get(Counter.BORROWED)).isEqualTo(borrowed);
+    }
+
+    @Test
+    void overdueIsCountedFromTheLoansNotFromTransitions() {
+        // Approved with a due date already passed, as a loan is once its due date goes by
+        BookTransaction overdue = new BookTransaction();
+        overdue.setBook(books.get(0));
+        overdue.setMember(member);
+        overdue.setRequestDate(LocalDate.now().minusDays(30));
+        overdue.setIssueDate(LocalDate.now().minusDays(30));
+        overdue.setDueDate(LocalDate.now().minusDays(1));
+        overdue.setStatus(BookTransaction.Status.APPROVED);
+        overdue = bookTransactionRepository.save(overdue);
+        circulationCounters.reconcile();
+        long before = circulationCounters.get(Counter.OVERDUE);
+        assertThat(before).isEqualTo(bookTransactionRepository.countOverdueBooks());
+
+        bookTransactionService.updateBookTransactionById(overdue.getId(), new BookTransactionUpdateRequest(
+                null, LocalDate.now(), BookTransaction.Status.RETURNED));
+
+        assertThat(circulationCounters.get(Counter.OVERDUE)).isEqualTo(before - 1).isNotNegative();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        transactionTemplate.executeWithoutResult(status ->
+                circulationStatRepository.addToStripe(Counter.BORROWED.name(), (short) 3, 5));
+        assertThat(storedTotal(Counter.BORROWED)).isEqualTo(bookTransactionRepository.countBorrowedBooks() + 5);
+
+        circulationCounters.reconcile();
+
+        assertThat(storedTotal(Counter.BORROWED)).isEqualTo(bookTransactionRepository.countBorrowedBooks());
+        assertThat(circulationCounters.get(Counter.BORROWED)).isEqualTo(bookTransactionRepository.countBorrowedBooks());
+    }
+
+    @Test
+    void readsAndReconciliationsRacingCommitsLoseNoChange() throws Exception {
+        long requested = circulationCounters.get(Counter.REQUESTED);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean requesting = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKS + 2);
+        try {
+            List<Future<?>> requests = new ArrayList<>();
+            for (Book book : books) {
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    return request(book);
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (requesting.get()) {
+                    circulationCounters.get(Counter.REQUESTED);
+                }
+                return null;
+            });
+            Future<?> reconciler = executor.submit(() -> {
+                start.await();
+                while (requesting.get()) {
+                    circulationCounters.reconcile();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> request : requests) {
+                request.get(30, TimeUnit.SECONDS);
+            }
+            requesting.set(false);
+            reader.get(30, TimeUnit.SECONDS);
+            reconciler.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(circulationCounters.get(Counter.REQUESTED)).isEqualTo(requested + BOOKS);
+        assertThat(storedTotal(Counter.REQUESTED)).isEqualTo(bookTransactionRepository.countRequestedBooks());
+    }
+
+    private BookTransaction request(Book book) {
+        return bookTransactionService.addBookTransaction(new BookTransactionRequest(book.getId(), member.getId()));
+    }
+
+    private long storedTotal(Counter counter) {
+        return circulationStatRepository.sumByCounter().stream()
+                .filter(total -> total.getCounter() == counter)
+                .mapToLong(CounterTotal::getTotal)
+                .sum();
+    }
+}
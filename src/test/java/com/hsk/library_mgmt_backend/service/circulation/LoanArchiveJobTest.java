@@ -0,0 +1,152 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.query.CursorPage;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
+import com.hsk.library_mgmt_backend.service.BookTransactionService;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the archive job moves loans closed before the cutoff into the yearly partitions, and that the
+ * listing and the member counts still find them.
+ * <p>
+ * Not transactional: the job moves rows in its own transactions. The rows created are deleted after each
+ * test.
+ * </p>
+ */
+@SpringBootTest(properties = "library.loan-archive.older-than=P12M")
+class LoanArchiveJobTest {
+
+    private static final LocalDate REQUESTED = LocalDate.now().minusYears(3);
+
+    @Autowired
+    private LoanArchiveJob loanArchiveJob;
+    @Autowired
+    private BookTransactionService bookTransactionService;
+    @Autowired
+    private BookTransactionRepository bookTransactionRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Member member;
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        member = new Member();
+        member.setName("Archived Member");
+        member.setEmail("archived-member-" + suffix + "@example.com");
+        member.setPassword("password");
+        member.setRole(Role.STUDENT);
+        member = memberRepository.save(member);
+
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("Archived Title " + i);
+            book.setAuthor("Archived Author");
+            book.setIsbn(suffix + "-" + i);
+            book.setCopiesAvailable(1);
+            books.add(bookRepository.save(book));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            bookTransactionRepository.deleteArchivedByMemberId(member.getId());
+            bookTransactionRepository.deleteByMemberId(member.getId());
+        });
+        bookRepository.deleteAll(books);
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    void loansClosedBeforeTheCutoffMoveToTheirYearlyPartition() {
+        BookTransaction returnedLongAgo = loan(books.get(0), BookTransaction.Status.RETURNED,
+                REQUESTED.plusMonths(1));
+        BookTransaction cancelledLongAgo = loan(books.get(1), BookTransaction.Status.CANCELLED, null);
+        jdbcTemplate.update("UPDATE book_transaction SET updated_at = updated_at - INTERVAL '2 years' WHERE id = ?",
+                cancelledLongAgo.getId());
+        // Requested as long ago, but only returned last month
+        BookTransaction returnedRecently = loan(books.get(2), BookTransaction.Status.RETURNED,
+                LocalDate.now().minusMonths(1));
+
+        loanArchiveJob.run();
+
+        assertThat(bookTransactionRepository.existsById(returnedLongAgo.getId())).isFalse();
+        assertThat(bookTransactionRepository.existsById(cancelledLongAgo.getId())).isFalse();
+        assertThat(bookTransactionRepository.existsById(returnedRecently.getId())).isTrue();
+        String partition = "book_transaction_archive_" + REQUESTED.getYear();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition + " WHERE id IN (?, ?, ?)",
+                Long.class, returnedLongAgo.getId(), cancelledLongAgo.getId(), returnedRecently.getId()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void listingAndMemberCountsIncludeArchivedLoans() {
+        loan(books.get(0), BookTransaction.Status.RETURNED, REQUESTED.plusMonths(1));
+        loan(books.get(1), BookTransaction.Status.RETURNED, REQUESTED.plusMonths(2));
+        loan(books.get(2), BookTransaction.Status.RETURNED, LocalDate.now().minusMonths(1));
+
+        loanArchiveJob.run();
+
+        Page<BookTransactionDto> live = bookTransactionService.getAllBookTransaction(
+                PageRequest.of(0, 10), "", "", member.getId(), false);
+        Page<BookTransactionDto> all = bookTransactionService.getAllBookTransaction(
+                PageRequest.of(0, 10), "", "", member.getId(), true);
+        assertThat(live.getTotalElements()).isOne();
+        assertThat(all.getTotalElements()).isEqualTo(3);
+        assertThat(all.getContent()).hasSize(3);
+
+        CursorPage<BookTransactionDto> liveSlice = bookTransactionService.getAllBookTransactionByCursor(
+                null, 10, "", "", member.getId(), false);
+        CursorPage<BookTransactionDto> allSlice = bookTransactionService.getAllBookTransactionByCursor(
+                null, 10, "", "", member.getId(), true);
+        assertThat(liveSlice.content()).hasSize(1);
+        assertThat(allSlice.content()).hasSize(3);
+
+        assertThat(bookTransactionRepository.countBooksWithMember(member.getId())).isEqualTo(3);
+    }
+
+    private BookTransaction loan(Book book, BookTransaction.Status status, LocalDate returnDate) {
+        BookTransaction loan = new BookTransaction();
+        loan.setBook(book);
+        loan.setMember(member);
+        loan.setRequestDate(REQUESTED);
+        loan.setStatus(status);
+        if (returnDate != null) {
+            loan.setIssueDate(REQUESTED);
+            loan.setDueDate(REQUESTED.plusWeeks(2));
+            loan.setReturnDate(returnDate);
+        }
+        return bookTransactionRepository.save(loan);
+    }
+}
@@ -0,0 +1,114 @@
+package com.hsk.library_mgmt_backend.service.circulation;
+
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.entity.MemberCirculationSummary;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberCirculationSummaryRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
+import com.hsk.library_mgmt_backend.response.MemberDashboardCountResponse;
+import com.hsk.library_mgmt_backend.service.BookTransactionService;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that reading a member dashboard never writes a summary and that the recount corrects a drifted one.
+ * <p>
+ * Not transactional: summaries are written by the changing transaction. The rows created are deleted
+ * after each test.
+ * </p>
+ */
+@SpringBootTest
+class MemberCirculationSummariesTest {
+
+    @Autowired
+    private MemberCirculationSummaries memberCirculationSummaries;
+    @Autowired
+    private MemberCirculationSummaryRepository summaryRepository;
+    @Autowired
+    private BookTransactionService bookTransactionService;
+    @Autowired
+    private BookTransactionRepository bookTransactionRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Member member;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        member = new Member();
+        member.setName("Summarized Member");
+        member.setEmail("summarized-member-" + suffix + "@example.com");
+        member.setPassword("password");
+        member.setRole(Role.STUDENT);
+        member = memberRepository.save(member);
+
+        book = new Book();
+        book.setTitle("Summarized Title");
+        book.setAuthor("Summarized Author");
+        book.setIsbn(suffix);
+        book.setCopiesAvailable(1);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookTransactionRepository.findByBookIdAndMemberId(book.getId(), member.getId())
+                .ifPresent(bookTransactionRepository::delete);
+        summaryRepository.findById(member.getId()).ifPresent(summaryRepository::delete);
+        bookRepository.deleteById(book.getId());
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    void readingWithoutASummaryCountsTheTransactionsAndWritesNothing() {
+        BookTransaction requested = new BookTransaction();
+        requested.setBook(book);
+        requested.setMember(member);
+        requested.setRequestDate(LocalDate.now());
+        requested.setStatus(BookTransaction.Status.REQUESTED);
+        bookTransactionRepository.save(requested);
+
+        MemberDashboardCountResponse counts = memberCirculationSummaries.get(member.getId());
+
+        assertThat(counts).isEqualTo(new MemberDashboardCountResponse(1, 1, 0, 0));
+        assertThat(summaryRepository.existsById(member.getId())).isFalse();
+    }
+
+    @Test
+    void reconcileCorrectsADriftedSummary() {
+        bookTransactionService.addBookTransaction(new BookTransactionRequest(book.getId(), member.getId()));
+        MemberCirculationSummary summary = summaryRepository.findById(member.getId()).orElseThrow();
+        assertThat(summary.getRequestedBooks()).isOne();
+
+        // As if the summary had been seeded from transactions deleted meanwhile
+        summary.setTotalBooks(3);
+        summary.setBorrowedBooks(2);
+        summaryRepository.save(summary);
+
+        memberCirculationSummaries.reconcile();
+
+        MemberCirculationSummary corrected = summaryRepository.findById(member.getId()).orElseThrow();
+        assertThat(corrected.getTotalBooks()).isOne();
+        assertThat(corrected.getRequestedBooks()).isOne();
+        assertThat(corrected.getBorrowedBooks()).isZero();
+        assertThat(memberCirculationSummaries.get(member.getId()))
+                .isEqualTo(new MemberDashboardCountResponse(1, 1, 0, 0));
+    }
+}
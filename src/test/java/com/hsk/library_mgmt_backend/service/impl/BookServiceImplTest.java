@@ -0,0 +1,133 @@
+package com.hsk.library_mgmt_backend.service.impl;
+
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.service.BookService;
+import com.hsk.library_mgmt_backend.service.importing.BookBatchImporter;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a bulk book import reports the rejected books by position and still imports the others.
+ * <p>
+ * Not transactional: each chunk of the import commits or rolls back on its own, which a surrounding
+ * test transaction would hide. The books created are deleted after each test.
+ * </p>
+ */
+@SpringBootTest
+class BookServiceImplTest {
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookBatchImporter bookBatchImporter;
+    @Autowired
+    private BookRepository bookRepository;
+
+    private String prefix;
+    private final List<String> isbns = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        prefix = UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll(isbns.stream().distinct().map(bookRepository::findByIsbn).filter(Objects::nonNull).toList());
+    }
+
+    @Test
+    void duplicateIsbnWithinTheRequestIsRejected() {
+        BulkImportResult<Book> result = bookService.addBookBulky(List.of(book("1"), book("2"), book("1")));
+
+        assertThat(result.created()).extracting(Book::getIsbn).containsExactly(isbn("1"), isbn("2"));
+        assertThat(result.failures()).containsExactly(
+                new BulkItemFailure(2, isbn("1"), "Duplicate ISBN in request"));
+    }
+
+    @Test
+    void existingIsbnIsRejected() {
+        bookRepository.save(book("1"));
+
+        BulkImportResult<Book> result = bookService.addBookBulky(List.of(book("2"), book("1"), book("3")));
+
+        assertThat(result.created()).extracting(Book::getIsbn).containsExactly(isbn("2"), isbn("3"));
+        assertThat(result.failures()).containsExactly(
+                new BulkItemFailure(1, isbn("1"), "Book already present"));
+    }
+
+    @Test
+    void failingChunkIsSplitUntilTheBadBookIsIsolated() {
+        // Passes the ISBN check but fails the insert, so the whole chunk rolls back
+        Book untitled = book("3");
+        untitled.setTitle(null);
+        List<Book> books = List.of(book("1"), book("2"), untitled, book("4"));
+
+        BulkImportResult<Book> result = bookService.addBookBulky(books);
+
+        assertThat(result.failures()).containsExactly(
+                new BulkItemFailure(2, isbn("3"), "Book could not be saved"));
+        assertThat(result.created()).extracting(Book::getIsbn)
+                .containsExactlyInAnyOrder(isbn("1"), isbn("2"), isbn("4"));
+        // The books saved by the rolled back attempts got fresh IDs and versions on the retry
+        for (Book created : result.created()) {
+            Book stored = bookRepository.findByIsbn(created.getIsbn());
+            assertThat(stored).isNotNull();
+            assertThat(stored.getId()).isEqualTo(created.getId());
+            assertThat(stored.getVersion()).isZero();
+        }
+        assertThat(untitled.getId()).isNull();
+        assertThat(bookRepository.findByIsbn(isbn("3"))).isNull();
+    }
+
+    @Test
+    void batchImporterReportsFailuresAtTheirRequestPositions() {
+        BulkImportResult<Book> result = bookBatchImporter.importBatch(List.of(
+                request("1", "First"),
+                request("2", ""),
+                request("3", "Third"),
+                request("1", "Again")));
+
+        assertThat(result.created()).extracting(Book::getIsbn).containsExactly(isbn("1"), isbn("3"));
+        assertThat(result.failures()).extracting(BulkItemFailure::index).containsExactly(1, 3);
+        assertThat(result.failures().get(0).message()).contains("Title is mandatory");
+        assertThat(result.failures().get(1).message()).isEqualTo("Duplicate ISBN in request");
+    }
+
+    private String isbn(String suffix) {
+        // Between 10 and 13 characters, as BookRequest requires
+        return prefix + "00" + suffix;
+    }
+
+    private Book book(String suffix) {
+        isbns.add(isbn(suffix));
+        Book book = new Book();
+        book.setTitle("Bulk " + suffix);
+        book.setAuthor("Author " + suffix);
+        book.setIsbn(isbn(suffix));
+        book.setGenre("Fiction");
+        book.setPublicationDate(LocalDate.of(2000, 1, 1));
+        book.setCopiesAvailable(1);
+        return book;
+    }
+
+    private BookRequest request(String suffix, String title) {
+        isbns.add(isbn(suffix));
+        return new BookRequest(title, "Author " + suffix, isbn(suffix), "Fiction", LocalDate.of(2000, 1, 1), 1);
+    }
+}
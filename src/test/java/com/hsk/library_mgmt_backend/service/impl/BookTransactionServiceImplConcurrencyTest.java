@@ -0,0 +1,220 @@
+package com.hsk.library_mgmt_backend.service.impl;
+
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
+import com.hsk.library_mgmt_backend.service.BookTransactionService;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import com.hsk.library_mgmt_backend.web.v1.payload.bookTransaction.BookTransactionUpdateRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that concurrent approvals of the same book never hand out more copies than it has, and that no
+ * sequence of status changes takes or returns a copy twice.
+ */
+@SpringBootTest
+class BookTransactionServiceImplConcurrencyTest {
+
+    private static final int APPROVERS = 64;
+    private static final int COPIES = 10;
+
+    @Autowired
+    private BookTransactionService bookTransactionService;
+    @Autowired
+    private BookTransactionRepository bookTransactionRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Book book;
+    private Member member;
+    private final List<Long> bookTransactionIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        member = new Member();
+        member.setName("Concurrent Approver");
+        member.setEmail("concurrent-approver-" + suffix + "@example.com");
+        member.setPassword("password");
+        member.setRole(Role.STUDENT);
+        member = memberRepository.save(member);
+
+        book = new Book();
+        book.setTitle("Popular Title");
+        book.setAuthor("Popular Author");
+        book.setIsbn(suffix);
+        book.setCopiesAvailable(COPIES);
+        book = bookRepository.save(book);
+
+        for (int i = 0; i < APPROVERS; i++) {
+            BookTransaction bookTransaction = new BookTransaction();
+            bookTransaction.setBook(book);
+            bookTransaction.setMember(member);
+            bookTransaction.setRequestDate(LocalDate.now());
+            bookTransaction.setStatus(BookTransaction.Status.REQUESTED);
+            bookTransactionIds.add(bookTransactionRepository.save(bookTransaction).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookTransactionRepository.deleteAllById(bookTransactionIds);
+        bookRepository.deleteById(book.getId());
+        memberRepository.deleteById(member.getId());
+    }
+
+    @Test
+    void concurrentApprovalsNeverOversell() throws Exception {
+        BookTransactionUpdateRequest approval = new BookTransactionUpdateRequest(
+                LocalDate.now().plusDays(14), null, BookTransaction.Status.APPROVED);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(APPROVERS);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (Long bookTransactionId : bookTransactionIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookTransactionService.updateBookTransactionById(bookTransactionId, approval);
+                        return true;
+                    } catch (ValidationException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int approved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    approved++;
+                }
+            }
+
+            assertThat(approved).isEqualTo(COPIES);
+            assertThat(bookRepository.findById(book.getId()).orElseThrow().getCopiesAvailable()).isZero();
+            assertThat(bookTransactionRepository.findAllById(bookTransactionIds))
+                    .filteredOn(bookTransaction -> bookTransaction.getStatus() == BookTransaction.Status.APPROVED)
+                    .hasSize(COPIES);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approvedLoanCannotBeRequestedAgain() {
+        Long bookTransactionId = bookTransactionIds.get(0);
+        bookTransactionService.updateBookTransactionById(bookTransactionId, approval());
+
+        assertThatThrownBy(() -> bookTransactionService.updateBookTransactionById(bookTransactionId, update(BookTransaction.Status.REQUESTED)))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> bookTransactionService.updateBookTransactionById(bookTransactionId, approval()))
+                .isInstanceOf(ValidationException.class);
+
+        assertThat(copiesAvailable()).isEqualTo(COPIES - 1);
+        assertThat(status(bookTransactionId)).isEqualTo(BookTransaction.Status.APPROVED);
+    }
+
+    @Test
+    void cancellingAnApprovedLoanReturnsItsCopy() {
+        Long bookTransactionId = bookTransactionIds.get(0);
+        bookTransactionService.updateBookTransactionById(bookTransactionId, approval());
+        assertThat(copiesAvailable()).isEqualTo(COPIES - 1);
+
+        bookTransactionService.updateBookTransactionById(bookTransactionId, update(BookTransaction.Status.CANCELLED));
+
+        assertThat(copiesAvailable()).isEqualTo(COPIES);
+        assertThat(status(bookTransactionId)).isEqualTo(BookTransaction.Status.CANCELLED);
+    }
+
+    @Test
+    void closedLoanCannotBeCancelledOrReturnedAgain() {
+        Long cancelledId = bookTransactionIds.get(0);
+        bookTransactionService.updateBookTransactionById(cancelledId, approval());
+        bookTransactionService.updateBookTransactionById(cancelledId, update(BookTransaction.Status.CANCELLED));
+        Long returnedId = bookTransactionIds.get(1);
+        bookTransactionService.updateBookTransactionById(returnedId, approval());
+        bookTransactionService.updateBookTransactionById(returnedId, new BookTransactionUpdateRequest(
+                null, LocalDate.now(), BookTransaction.Status.RETURNED));
+        assertThat(copiesAvailable()).isEqualTo(COPIES);
+
+        for (Long bookTransactionId : List.of(cancelledId, returnedId)) {
+            assertThatThrownBy(() -> bookTransactionService.updateBookTransactionById(bookTransactionId, update(BookTransaction.Status.CANCELLED)))
+                    .isInstanceOf(RuntimeException.class);
+            assertThatThrownBy(() -> bookTransactionService.updateBookTransactionById(bookTransactionId, new BookTransactionUpdateRequest(
+                    null, LocalDate.now(), BookTransaction.Status.RETURNED)))
+                    .isInstanceOf(RuntimeException.class);
+        }
+
+        assertThat(copiesAvailable()).isEqualTo(COPIES);
+        assertThat(status(cancelledId)).isEqualTo(BookTransaction.Status.CANCELLED);
+        assertThat(status(returnedId)).isEqualTo(BookTransaction.Status.RETURNED);
+    }
+
+    @Test
+    void returnedLoanCanBeRequestedAndApprovedAgain() {
+        Long bookTransactionId = bookTransactionIds.get(0);
+        bookTransactionService.updateBookTransactionById(bookTransactionId, approval());
+        bookTransactionService.updateBookTransactionById(bookTransactionId, new BookTransactionUpdateRequest(
+                null, LocalDate.now(), BookTransaction.Status.RETURNED));
+
+        bookTransactionService.updateBookTransactionById(bookTransactionId, update(BookTransaction.Status.REQUESTED));
+        BookTransaction requested = bookTransactionRepository.findById(bookTransactionId).orElseThrow();
+        assertThat(requested.getReturnDate()).isNull();
+        assertThat(requested.getDueDate()).isNull();
+        bookTransactionService.updateBookTransactionById(bookTransactionId, approval());
+
+        assertThat(copiesAvailable()).isEqualTo(COPIES - 1);
+        assertThat(status(bookTransactionId)).isEqualTo(BookTransaction.Status.APPROVED);
+    }
+
+    @Test
+    void stockUpdatesSetTheAuditColumns() {
+        bookTransactionService.updateBookTransactionById(bookTransactionIds.get(0), approval());
+
+        Book updated = bookRepository.findById(book.getId()).orElseThrow();
+        assertThat(updated.getUpdatedBy()).isEqualTo("system");
+        assertThat(updated.getUpdatedAt()).isAfterOrEqualTo(book.getUpdatedAt());
+        assertThat(updated.getVersion()).isEqualTo(book.getVersion() + 1);
+    }
+
+    private static BookTransactionUpdateRequest approval() {
+        return new BookTransactionUpdateRequest(LocalDate.now().plusDays(14), null, BookTransaction.Status.APPROVED);
+    }
+
+    private static BookTransactionUpdateRequest update(BookTransaction.Status status) {
+        return new BookTransactionUpdateRequest(null, null, status);
+    }
+
+    private int copiesAvailable() {
+        return bookRepository.findById(book.getId()).orElseThrow().getCopiesAvailable();
+    }
+
+    private BookTransaction.Status status(Long bookTransactionId) {
+        return bookTransactionRepository.findById(bookTransactionId).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,123 @@
+package com.hsk.library_mgmt_backend.service.impl;
+
+import com.hsk.library_mgmt_backend.dto.BookTransactionDto;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.persistent.entity.BookTransaction;
+import com.hsk.library_mgmt_backend.persistent.entity.Member;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.MemberRepository;
+import com.hsk.library_mgmt_backend.service.BookTransactionService;
+import com.hsk.library_mgmt_backend.web.v1.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that listing book transactions loads the books and members with the page instead of one
+ * query per row.
+ */
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookTransactionServiceImplTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private BookTransactionService bookTransactionService;
+    @Autowired
+    private BookTransactionRepository bookTransactionRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private MemberRepository memberRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        Member member = new Member();
+        member.setName("Statement Count");
+        member.setEmail("statement-count-" + suffix + "@example.com");
+        member.setPassword("password");
+        member.setRole(Role.STUDENT);
+        member = memberRepository.save(member);
+        memberId = member.getId();
+
+        for (int i = 0; i < PAGE_SIZE + 1; i++) {
+            Book book = new Book();
+            book.setTitle("Statement Count " + i);
+            book.setAuthor("Author " + i);
+            book.setIsbn(suffix + "-" + i);
+            book.setCopiesAvailable(1);
+            book = bookRepository.save(book);
+
+            BookTransaction bookTransaction = new BookTransaction();
+            bookTransaction.setBook(book);
+            bookTransaction.setMember(member);
+            bookTransaction.setRequestDate(LocalDate.now().minusDays(30));
+            bookTransaction.setIssueDate(LocalDate.now().minusDays(30));
+            bookTransaction.setDueDate(LocalDate.now().minusDays(1));
+            bookTransaction.setStatus(BookTransaction.Status.APPROVED);
+            bookTransactionRepository.save(bookTransaction);
+        }
+
+        // Start from an empty persistence context so every association has to be loaded again
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllBookTransactionLoadsPageWithPageAndCountQueries() {
+        Page<BookTransactionDto> page = bookTransactionService.getAllBookTransaction(
+                PageRequest.of(0, PAGE_SIZE), "", "", memberId, false);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE)
+                .allSatisfy(dto -> {
+                    assertThat(dto.book().title()).startsWith("Statement Count");
+                    assertThat(dto.member().id()).isEqualTo(memberId);
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void getAllBookTransactionByCursorLoadsPageWithOneQuery() {
+        var page = bookTransactionService.getAllBookTransactionByCursor("", PAGE_SIZE, "", "", memberId, false);
+
+        assertThat(page.content()).hasSize(PAGE_SIZE);
+        assertThat(page.nextCursor()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getAllOverdueBookTransactionsLoadsPageWithPageAndCountQueries() {
+        Page<BookTransactionDto> page = bookTransactionService.getAllOverdueBookTransactions(
+                PageRequest.of(0, PAGE_SIZE), memberId);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE)
+                .allSatisfy(dto -> assertThat(dto.book().title()).startsWith("Statement Count"));
+        assertThat(page.getTotalElements()).isEqualTo(PAGE_SIZE + 1);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
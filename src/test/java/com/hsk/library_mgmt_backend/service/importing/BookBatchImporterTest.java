@@ -0,0 +1,46 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.mapper.BookMapper;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.service.BookService;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a missing book in a batch is reported by its position while the others are added.
+ */
+class BookBatchImporterTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final BookMapper bookMapper = mock(BookMapper.class);
+    private final Validator validator = mock(Validator.class);
+    private final BookBatchImporter importer = new BookBatchImporter(bookService, bookMapper, validator);
+
+    @Test
+    void nullItemIsReportedAsAFailure() {
+        BookRequest request = new BookRequest("Title", "Author", "1234567890", "Fiction",
+                LocalDate.of(2000, 1, 1), 1);
+        Book book = new Book();
+        when(validator.validate(request)).thenReturn(Set.of());
+        when(bookMapper.toEntity(request)).thenReturn(book);
+        when(bookService.addBookBulky(any())).thenReturn(new BulkImportResult<>(List.of(book), List.of()));
+
+        BulkImportResult<Book> result = importer.importBatch(Arrays.asList(null, request));
+
+        assertThat(result.created()).containsExactly(book);
+        assertThat(result.failures()).containsExactly(new BulkItemFailure(0, null, "Book is mandatory"));
+    }
+}
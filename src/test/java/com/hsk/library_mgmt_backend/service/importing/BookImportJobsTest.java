@@ -0,0 +1,151 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsk.library_mgmt_backend.dto.BulkImportResult;
+import com.hsk.library_mgmt_backend.dto.BulkItemFailure;
+import com.hsk.library_mgmt_backend.exception.ValidationException;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the streaming import jobs: progress with rejected records, the input size limit and the
+ * clean-up of queued jobs at shutdown.
+ */
+class BookImportJobsTest {
+
+    private static final String HEADER = "title,author,isbn,genre,publicationDate,copiesAvailable\n";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final BookBatchImporter bookBatchImporter = mock(BookBatchImporter.class);
+    private final BookImportJobs bookImportJobs = new BookImportJobs(bookBatchImporter, new ObjectMapper().findAndRegisterModules(),
+            2, 100, Duration.ofHours(1), 1, DataSize.ofKilobytes(1), 100);
+
+    @AfterEach
+    void tearDown() {
+        bookImportJobs.shutdown();
+    }
+
+    @Test
+    void unparsableRecordIsRejectedAndTheImportContinues() throws Exception {
+        when(bookBatchImporter.importBatch(anyList())).thenAnswer(invocation -> {
+            List<BookRequest> books = invocation.getArgument(0);
+            return new BulkImportResult<>(books.stream().map(book -> new Book()).toList(), List.of());
+        });
+
+        BookImportJob job = bookImportJobs.start(input(HEADER
+                + "First,Author,1234567890,Fiction,2000-01-01,1\n"
+                + "Bad Date,Author,1234567891,Fiction,not-a-date,1\n"
+                + "Second,Author,1234567892,Fiction,2000-01-03,1\n"
+                + "Third,Author,1234567893,Fiction,2000-01-04,1\n"), BookImportFormat.CSV);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(BookImportJob.Status.COMPLETED);
+        assertThat(job.getRecordsRead()).isEqualTo(4);
+        assertThat(job.getImported()).isEqualTo(3);
+        assertThat(job.getRejected()).isEqualTo(1);
+        assertThat(job.getFailures()).extracting(BulkItemFailure::index).containsExactly(1);
+    }
+
+    @Test
+    void importerFailuresAreReportedAtTheirInputPosition() throws Exception {
+        when(bookBatchImporter.importBatch(anyList())).thenAnswer(invocation -> {
+            List<BookRequest> books = invocation.getArgument(0);
+            // Rejects the second book of every chunk
+            return new BulkImportResult<>(List.of(new Book()),
+                    books.size() > 1 ? List.of(new BulkItemFailure(1, books.get(1).isbn(), "ISBN already exists")) : List.of());
+        });
+
+        BookImportJob job = bookImportJobs.start(input(HEADER
+                + "First,Author,1234567890,Fiction,2000-01-01,1\n"
+                + "Bad Date,Author,1234567891,Fiction,not-a-date,1\n"
+                + "Second,Author,1234567892,Fiction,2000-01-03,1\n"
+                + "Third,Author,1234567893,Fiction,2000-01-04,1\n"), BookImportFormat.CSV);
+        awaitFinished(job);
+
+        // The chunk holds positions 0 and 2, so its second book is at position 2
+        assertThat(job.getFailures()).extracting(BulkItemFailure::index).containsExactly(1, 2);
+        assertThat(job.getFailures().get(1).key()).isEqualTo("1234567892");
+    }
+
+    @Test
+    void inputOverTheSizeLimitIsRefusedAndNotKept() throws IOException {
+        Set<Path> spoolsBefore = spoolFiles();
+
+        assertThatThrownBy(() -> bookImportJobs.start(new ByteArrayInputStream(new byte[2048]), BookImportFormat.CSV))
+                .isInstanceOf(ValidationException.class);
+        assertThat(spoolFiles()).isEqualTo(spoolsBefore);
+    }
+
+    @Test
+    void queuedJobsFailAndLoseTheirInputAtShutdown() throws Exception {
+        CountDownLatch importing = new CountDownLatch(1);
+        when(bookBatchImporter.importBatch(anyList())).thenAnswer(invocation -> {
+            importing.countDown();
+            // Holds the only import thread until shutdown interrupts it
+            new CountDownLatch(1).await();
+            return null;
+        });
+        Set<Path> spoolsBefore = spoolFiles();
+        String csv = HEADER + "First,Author,1234567890,Fiction,2000-01-01,1\n";
+
+        bookImportJobs.start(input(csv), BookImportFormat.CSV);
+        BookImportJob queued = bookImportJobs.start(input(csv), BookImportFormat.CSV);
+        assertThat(importing.await(TIMEOUT.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        bookImportJobs.shutdown();
+
+        assertThat(queued.getStatus()).isEqualTo(BookImportJob.Status.FAILED);
+        assertThat(queued.getError()).contains("stopped");
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!spoolFiles().equals(spoolsBefore) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(spoolFiles()).isEqualTo(spoolsBefore);
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void awaitFinished(BookImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!isFinished(job) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(isFinished(job)).isTrue();
+    }
+
+    private static boolean isFinished(BookImportJob job) {
+        return job.getStatus() == BookImportJob.Status.COMPLETED || job.getStatus() == BookImportJob.Status.FAILED;
+    }
+
+    private static Set<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("book-import-"))
+                    .collect(Collectors.toCollection(HashSet::new));
+        }
+    }
+}
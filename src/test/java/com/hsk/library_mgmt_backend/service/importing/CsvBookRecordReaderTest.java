@@ -0,0 +1,115 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.hsk.library_mgmt_backend.exception.ParsingException;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the CSV parsing of the streaming import: RFC 4180 quoting, line endings, the header and
+ * records that cannot be read.
+ */
+class CsvBookRecordReaderTest {
+
+    private static final String HEADER = "title,author,isbn,genre,publicationDate,copiesAvailable\n";
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        try (CsvBookRecordReader reader = reader(HEADER
+                + "\"Eats, Shoots and Leaves\",\"Lynne \"\"LT\"\" Truss\",1234567890,\"Line one\nline two\",2003-04-01,3\n")) {
+            BookRequest book = reader.next();
+
+            assertThat(book.title()).isEqualTo("Eats, Shoots and Leaves");
+            assertThat(book.author()).isEqualTo("Lynne \"LT\" Truss");
+            assertThat(book.isbn()).isEqualTo("1234567890");
+            assertThat(book.genre()).isEqualTo("Line one\nline two");
+            assertThat(book.publicationDate()).isEqualTo(LocalDate.of(2003, 4, 1));
+            assertThat(book.copiesAvailable()).isEqualTo(3);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void crlfLineEndingsAndBlankLinesAreSkipped() throws IOException {
+        try (CsvBookRecordReader reader = reader(HEADER.replace("\n", "\r\n")
+                + "\r\n"
+                + "First,Author,1234567890,Fiction,2000-01-01,1\r\n"
+                + "\r\n\r\n"
+                + "Second,Author,1234567891,Fiction,2000-01-02,2\r\n")) {
+            assertThat(reader.next().title()).isEqualTo("First");
+            BookRequest second = reader.next();
+            assertThat(second.title()).isEqualTo("Second");
+            assertThat(second.copiesAvailable()).isEqualTo(2);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void headerMissingAColumnIsRejected() {
+        assertThatThrownBy(() -> reader("title,author,genre,publicationDate,copiesAvailable\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("isbn");
+    }
+
+    @Test
+    void emptyInputIsRejected() {
+        assertThatThrownBy(() -> reader("")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void unterminatedQuoteStopsAtTheFieldLengthLimit() throws IOException {
+        try (CsvBookRecordReader reader = reader(HEADER + "\"Never closed," + "x".repeat(70_000) + "\n")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("unterminated");
+        }
+    }
+
+    @Test
+    void unparsableValuesAreRejectedAndReadingContinues() throws IOException {
+        try (CsvBookRecordReader reader = reader(HEADER
+                + "Bad Date,Author,1234567890,Fiction,01/02/2000,1\n"
+                + "Bad Number,Author,1234567891,Fiction,2000-01-02,many\n"
+                + "Good,Author,1234567892,Fiction,2000-01-03,1\n")) {
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(ParsingException.class)
+                    .hasMessageContaining("01/02/2000");
+            assertThatThrownBy(reader::next)
+                    .isInstanceOf(ParsingException.class)
+                    .hasMessageContaining("many");
+            assertThat(reader.next().title()).isEqualTo("Good");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void byteOrderMarkBeforeTheHeaderIsSkipped() throws IOException {
+        try (CsvBookRecordReader reader = reader("\uFEFF" + HEADER + "Title,Author,1234567890,Fiction,2000-01-01,1\n")) {
+            assertThat(reader.next().title()).isEqualTo("Title");
+        }
+    }
+
+    @Test
+    void headerIsMatchedCaseInsensitivelyAndEmptyFieldsAreMissing() throws IOException {
+        try (CsvBookRecordReader reader = reader(
+                "extra,ISBN,Title,Author,Genre,PublicationDate,CopiesAvailable\nignored,1234567890,Title,,Fiction,,\n")) {
+            BookRequest book = reader.next();
+
+            assertThat(book.isbn()).isEqualTo("1234567890");
+            assertThat(book.author()).isNull();
+            assertThat(book.publicationDate()).isNull();
+            assertThat(book.copiesAvailable()).isNull();
+        }
+    }
+
+    private static CsvBookRecordReader reader(String csv) throws IOException {
+        return new CsvBookRecordReader(new BufferedReader(new StringReader(csv)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.hsk.library_mgmt_backend.service.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hsk.library_mgmt_backend.exception.ParsingException;
+import com.hsk.library_mgmt_backend.web.v1.payload.book.BookRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the NDJSON parsing of the streaming import.
+ */
+class NdjsonBookRecordReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void readsOneBookPerLineSkippingBlankLines() throws IOException {
+        try (NdjsonBookRecordReader reader = reader("""
+                {"title":"First","author":"Author","isbn":"1234567890","genre":"Fiction","publicationDate":"2000-01-01","copiesAvailable":1}
+
+                {"title":"Second","author":"Author","isbn":"1234567891","genre":"Fiction","publicationDate":"2000-01-02","copiesAvailable":2}
+                """)) {
+            BookRequest first = reader.next();
+            assertThat(first.title()).isEqualTo("First");
+            assertThat(first.publicationDate()).isEqualTo(LocalDate.of(2000, 1, 1));
+            assertThat(reader.next().copiesAvailable()).isEqualTo(2);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void invalidLinesAreRejectedAndReadingContinues() throws IOException {
+        try (NdjsonBookRecordReader reader = reader("""
+                {"title":"Unclosed"
+                {"title":"Bad Date","publicationDate":"01/02/2000"}
+                {"title":"Good"}
+                """)) {
+            assertThatThrownBy(reader::next).isInstanceOf(ParsingException.class);
+            assertThatThrownBy(reader::next).isInstanceOf(ParsingException.class);
+            assertThat(reader.next().title()).isEqualTo("Good");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void byteOrderMarkIsSkipped() throws IOException {
+        try (NdjsonBookRecordReader reader = reader("\uFEFF{\"title\":\"Title\"}\n")) {
+            assertThat(reader.next().title()).isEqualTo("Title");
+        }
+    }
+
+    private NdjsonBookRecordReader reader(String ndjson) throws IOException {
+        return new NdjsonBookRecordReader(new BufferedReader(new StringReader(ndjson)), objectMapper);
+    }
+}
@@ -0,0 +1,148 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.dto.BookDto;
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.persistent.entity.Book;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a search racing a committed book change never caches the page from before the change, and
+ * that a change of available copies only evicts the pages showing that book.
+ */
+class BookSearchCacheTest {
+
+    private static final Pageable PAGEABLE = PageRequest.of(0, 10);
+    private static final BookSearchDocument DOCUMENT = new BookSearchDocument(1L, "Title", "Author", "1234567890", "Fiction");
+
+    private final BookSearchCache cache = new BookSearchCache(new SimpleMeterRegistry(), true, 1_000, Duration.ofSeconds(30));
+    private final Page<BookDto> stalePage = new PageImpl<>(List.of(), PAGEABLE, 0);
+    private final Page<BookDto> freshPage = new PageImpl<>(List.of(), PAGEABLE, 0);
+    private final AtomicBoolean indexApplied = new AtomicBoolean();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readBetweenCommitAndIndexApplyIsNotCached() {
+        assertThat(search()).isSameAs(stalePage);
+
+        TransactionSynchronizationManager.initSynchronization();
+        // The cache registers its callback first, so only the order keeps it behind the index
+        cache.onBookChanged(BookChangedEvent.updated(DOCUMENT, book(1L, 1)));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return BookSearchCache.INDEX_UPDATE_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // A search arriving after the commit, before the index has the change
+                assertThat(search()).isSameAs(stalePage);
+                indexApplied.set(true);
+            }
+        });
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(search()).isSameAs(freshPage);
+    }
+
+    @Test
+    void indexListenersRunBeforeTheCacheReopens() throws NoSuchMethodException {
+        for (Class<?> index : List.of(InMemoryBookSearchIndex.class, BookSuggestIndex.class)) {
+            Order order = AnnotatedElementUtils.findMergedAnnotation(
+                    index.getMethod("onBookChanged", BookChangedEvent.class), Order.class);
+            assertThat(order).as(index.getSimpleName()).isNotNull();
+            assertThat(order.value()).as(index.getSimpleName()).isEqualTo(BookSearchCache.INDEX_UPDATE_ORDER);
+        }
+    }
+
+    @Test
+    void copiesChangeOnlyEvictsThePagesShowingTheBook() {
+        Page<BookDto> withBook = page(bookDto(1L, 2));
+        Page<BookDto> withoutBook = page(bookDto(2L, 5));
+        assertThat(cache.get("first", "", PAGEABLE, () -> withBook)).isSameAs(withBook);
+        assertThat(cache.get("second", "", PAGEABLE, () -> withoutBook)).isSameAs(withoutBook);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onBookChanged(BookChangedEvent.copiesChanged(1L));
+        // Until the change completes, only the page showing the book bypasses the cache
+        Page<BookDto> reloaded = page(bookDto(1L, 1));
+        assertThat(cache.get("first", "", PAGEABLE, () -> reloaded)).isSameAs(reloaded);
+        assertThat(cache.get("second", "", PAGEABLE, this::unexpectedLoad)).isSameAs(withoutBook);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Page<BookDto> afterCommit = page(bookDto(1L, 1));
+        assertThat(cache.get("first", "", PAGEABLE, () -> afterCommit)).isSameAs(afterCommit);
+        assertThat(cache.get("first", "", PAGEABLE, this::unexpectedLoad)).isSameAs(afterCommit);
+        assertThat(cache.get("second", "", PAGEABLE, this::unexpectedLoad)).isSameAs(withoutBook);
+    }
+
+    @Test
+    void pageLoadedAcrossACopiesChangeIsNotKept() {
+        Page<BookDto> beforeChange = page(bookDto(1L, 2));
+
+        // The change commits while the page is being loaded
+        assertThat(cache.get("title", "", PAGEABLE, () -> {
+            cache.onBookChanged(BookChangedEvent.copiesChanged(1L));
+            return beforeChange;
+        })).isSameAs(beforeChange);
+
+        Page<BookDto> afterChange = page(bookDto(1L, 1));
+        assertThat(cache.get("title", "", PAGEABLE, () -> afterChange)).isSameAs(afterChange);
+    }
+
+    private Page<BookDto> unexpectedLoad() {
+        throw new AssertionError("Expected the page to be served from the cache");
+    }
+
+    private static Page<BookDto> page(BookDto book) {
+        return new PageImpl<>(List.of(book), PAGEABLE, 1);
+    }
+
+    private static BookDto bookDto(Long id, int copiesAvailable) {
+        return new BookDto(id, null, null, null, null, "Title " + id, "Author", "isbn-" + id, "Fiction", null,
+                copiesAvailable);
+    }
+
+    private static Book book(Long id, int copiesAvailable) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Title");
+        book.setAuthor("Author");
+        book.setIsbn("1234567890");
+        book.setGenre("Science");
+        book.setCopiesAvailable(copiesAvailable);
+        return book;
+    }
+
+    private Page<BookDto> search() {
+        return cache.get("title", "", PAGEABLE, () -> indexApplied.get() ? freshPage : stalePage);
+    }
+}
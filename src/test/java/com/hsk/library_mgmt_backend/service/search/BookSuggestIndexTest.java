@@ -0,0 +1,93 @@
+package com.hsk.library_mgmt_backend.service.search;
+
+import com.hsk.library_mgmt_backend.dto.BookSearchDocument;
+import com.hsk.library_mgmt_backend.persistent.projection.BookLoanCount;
+import com.hsk.library_mgmt_backend.persistent.repository.BookRepository;
+import com.hsk.library_mgmt_backend.persistent.repository.BookTransactionRepository;
+import com.hsk.library_mgmt_backend.response.BookSuggestionResponse;
+import com.hsk.library_mgmt_backend.service.event.BookChangedEvent;
+import com.hsk.library_mgmt_backend.service.event.LoanState;
+import com.hsk.library_mgmt_backend.service.event.LoanStateChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that suggestions match any word of a title or author and come most borrowed first.
+ */
+class BookSuggestIndexTest {
+
+    private static final BookSearchDocument HOBBIT =
+            new BookSearchDocument(1L, "The Hobbit", "J. R. R. Tolkien", "isbn-1", "Fantasy");
+    private static final BookSearchDocument HOUSE =
+            new BookSearchDocument(2L, "Bleak House", "Charles Dickens", "isbn-2", "Classic");
+    private static final BookSearchDocument HOURS =
+            new BookSearchDocument(3L, "The Hours", "Michael Cunningham", "isbn-3", "Fiction");
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookTransactionRepository bookTransactionRepository = mock(BookTransactionRepository.class);
+    private final BookSuggestIndex index = new BookSuggestIndex(bookRepository, bookTransactionRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 1_000);
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.streamSearchDocuments()).thenReturn(Stream.of(HOBBIT, HOUSE, HOURS));
+        when(bookTransactionRepository.streamLoanCounts()).thenReturn(Stream.of(loans(2L, 7), loans(3L, 3)));
+        index.build();
+    }
+
+    @Test
+    void laterTitleWordsAndSurnamesMatch() {
+        assertThat(index.suggest("hob", 10)).containsExactly(new BookSuggestionResponse("The Hobbit", "title"));
+        assertThat(index.suggest("tolk", 10))
+                .containsExactly(new BookSuggestionResponse("J. R. R. Tolkien", "author"));
+        assertThat(index.suggest("the h", 10)).containsExactly(
+                new BookSuggestionResponse("The Hours", "title"),
+                new BookSuggestionResponse("The Hobbit", "title"));
+    }
+
+    @Test
+    void mostBorrowedComeFirstBeforeTheLimit() {
+        assertThat(index.suggest("ho", 2)).containsExactly(
+                new BookSuggestionResponse("Bleak House", "title"),
+                new BookSuggestionResponse("The Hours", "title"));
+    }
+
+    @Test
+    void loansAndRenamesMoveTheRanking() {
+        for (long id = 10; id < 20; id++) {
+            index.onLoanStateChanged(new LoanStateChangedEvent(id, 1L, 1L, LoanState.NONE,
+                    new LoanState(true, true, false, false)));
+        }
+        assertThat(index.suggest("ho", 1)).containsExactly(new BookSuggestionResponse("The Hobbit", "title"));
+
+        index.onBookChanged(new BookChangedEvent(1L, HOBBIT,
+                new BookSearchDocument(1L, "There and Back Again", "J. R. R. Tolkien", "isbn-1", "Fantasy")));
+        assertThat(index.suggest("hob", 10)).isEmpty();
+        assertThat(index.suggest("back", 10))
+                .containsExactly(new BookSuggestionResponse("There and Back Again", "title"));
+        assertThat(index.suggest("th", 1))
+                .containsExactly(new BookSuggestionResponse("There and Back Again", "title"));
+    }
+
+    private static BookLoanCount loans(Long bookId, long loans) {
+        return new BookLoanCount() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public long getLoans() {
+                return loans;
+            }
+        };
+    }
+}